@@ -0,0 +1,134 @@
+package Benchmarks;
+
+import Animals.Animal;
+import Animals.Dolphin;
+import Competitions.CourierTournament;
+import Competitions.Scores;
+import Graphics.ZooPanel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link CourierTournament#setUp(Animal[][])} for growing groups of water animals, one group per route.
+ * Setting up a tournament also starts it, so every measurement is a single call, and the race is run to the end
+ * (including the rest of the animals after the race) before the next one.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class CourierTournamentBenchmark {
+
+    /**
+     * Number of groups, one on each water route.
+     */
+    private static final int GROUPS = 4;
+
+    /**
+     * Maximum energy of the animals, enough for any number of races.
+     */
+    private static final int MAX_ENERGY = Integer.MAX_VALUE / 2;
+
+    /**
+     * Number of animals in each group.
+     */
+    @Param({"1", "4", "16"})
+    public int groupSize;
+
+    /**
+     * The panel the animals race on.
+     */
+    private ZooPanel zooPanel;
+
+    /**
+     * The groups of the tournament.
+     */
+    private Animal[][] groups;
+
+    /**
+     * The tournament of the last measurement.
+     */
+    private CourierTournament tournament;
+
+    /**
+     * Creates the panel and the groups.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        zooPanel = new ZooPanel();
+        zooPanel.setSize(935, 530);
+
+        groups = new Animal[GROUPS][groupSize];
+        for (int k = 0; k < GROUPS; ++k) {
+            for (int i = 0; i < groupSize; ++i) {
+                groups[k][i] = new Dolphin("dolphin " + k + "-" + i, 600, 1, MAX_ENERGY, k + 1, zooPanel);
+            }
+        }
+    }
+
+    /**
+     * Fills the energy of the animals before each race.
+     */
+    @Setup(Level.Iteration)
+    public void feed() {
+        for (Animal[] group : groups) {
+            for (Animal animal : group) {
+                animal.eat(MAX_ENERGY - animal.getCurrentEnergy());
+            }
+        }
+    }
+
+    /**
+     * Waits for the race to end and for all the animals to be available again.
+     *
+     * @throws InterruptedException If the benchmark thread is interrupted.
+     */
+    @TearDown(Level.Iteration)
+    public void awaitRace() throws InterruptedException {
+        Scores scores = tournament.getTournamentThread().getScores();
+        while (scores.size() < GROUPS || !allAvailable()) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Sets up and starts a courier tournament.
+     *
+     * @return The tournament.
+     */
+    @Benchmark
+    public CourierTournament setUpTournament() {
+        tournament = new CourierTournament(groups);
+        return tournament;
+    }
+
+    /**
+     * Checks whether all the animals finished their race.
+     *
+     * @return true if every animal is available, false otherwise.
+     */
+    private boolean allAvailable() {
+        for (Animal[] group : groups) {
+            for (Animal animal : group) {
+                if (!animal.isAvailable())
+                    return false;
+            }
+        }
+        return true;
+    }
+}
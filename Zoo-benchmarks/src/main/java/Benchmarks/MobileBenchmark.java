@@ -0,0 +1,100 @@
+package Benchmarks;
+
+import Animals.Dog;
+import Mobility.Point;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the location methods of {@link Mobility.Mobile}: the {@link Point} API and the primitive one.
+ * Every call moves between two points, so the distance is never zero.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class MobileBenchmark {
+
+    /**
+     * The object that moves.
+     */
+    private Dog dog;
+
+    /**
+     * The two points the object moves between.
+     */
+    private Point[] points;
+
+    /**
+     * Index of the next point in {@link #points}.
+     */
+    private int next;
+
+    /**
+     * Creates the object and the points.
+     */
+    @Setup
+    public void setUp() {
+        dog = new Dog("benchmark", 60, 1, 1000);
+        points = new Point[]{new Point(10, 20), new Point(400, 300)};
+        next = 0;
+    }
+
+    /**
+     * Moves with {@link Mobility.Mobile#move(Point)}.
+     *
+     * @return The distance moved.
+     */
+    @Benchmark
+    public double move() {
+        next ^= 1;
+        return dog.move(points[next]);
+    }
+
+    /**
+     * Moves with {@link Mobility.Mobile#moveTo(int, int)}.
+     *
+     * @return The distance moved.
+     */
+    @Benchmark
+    public double moveTo() {
+        next ^= 1;
+        Point point = points[next];
+        return dog.moveTo(point.getX(), point.getY());
+    }
+
+    /**
+     * Measures with {@link Mobility.Mobile#calcDistancePoint(Point)}.
+     *
+     * @return The distance to the point.
+     */
+    @Benchmark
+    public double calcDistancePoint() {
+        next ^= 1;
+        return dog.calcDistancePoint(points[next]);
+    }
+
+    /**
+     * Measures with {@link Mobility.Mobile#calcDistance(int, int)}.
+     *
+     * @return The distance to the point.
+     */
+    @Benchmark
+    public double calcDistance() {
+        next ^= 1;
+        Point point = points[next];
+        return dog.calcDistance(point.getX(), point.getY());
+    }
+}
@@ -0,0 +1,134 @@
+package Benchmarks;
+
+import Animals.Animal;
+import Animals.Dog;
+import Animals.Orientation;
+import Animals.SimulationEngine;
+import Mobility.Point;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the movement step ({@code Animal.moveToward}) through {@link SimulationEngine#tick()}.
+ * The animals run back and forth on a straight line, so every tick moves every animal.
+ * The engine's own loop is slowed to one tick an hour, so only the benchmark thread advances the animals.
+ * The result is the time of one tick that moves all the animals.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class MovementBenchmark {
+
+    /**
+     * Length of a tick of the engine's own loop during the benchmark.
+     */
+    private static final long IDLE_TICK_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    /**
+     * Maximum energy of the animals, enough for a whole iteration.
+     */
+    private static final int MAX_ENERGY = Integer.MAX_VALUE / 2;
+
+    /**
+     * The east end of the line.
+     */
+    private static final int EAST_END = 800;
+
+    /**
+     * Number of moving animals.
+     */
+    @Param({"1", "100", "1000"})
+    public int animals;
+
+    /**
+     * The engine advancing the animals.
+     */
+    private SimulationEngine engine;
+
+    /**
+     * The moving animals.
+     */
+    private Animal[] herd;
+
+    /**
+     * Creates the animals and starts them moving.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = SimulationEngine.getInstance();
+        engine.setTickNanos(IDLE_TICK_NANOS);
+
+        herd = new Animal[animals];
+        for (int i = 0; i < animals; ++i) {
+            herd[i] = new Dog("dog " + i, 60, 1, MAX_ENERGY);
+            herd[i].setLocation(new Point(0, i % 500));
+            turn(herd[i]);
+        }
+    }
+
+    /**
+     * Fills the energy of the animals before each iteration.
+     */
+    @Setup(Level.Iteration)
+    public void feed() {
+        for (Animal animal : herd) {
+            animal.eat(MAX_ENERGY - animal.getCurrentEnergy());
+        }
+    }
+
+    /**
+     * Stops the animals and restores the engine.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (Animal animal : herd) {
+            animal.stopMoving();
+        }
+        engine.tick();
+        engine.setTickNanos(SimulationEngine.DEFAULT_TICK_NANOS);
+    }
+
+    /**
+     * Advances every animal by one step and turns the animals that reached an end of the line.
+     */
+    @Benchmark
+    public void tick() {
+        engine.tick();
+        for (Animal animal : herd) {
+            if (!animal.isMoving())
+                turn(animal);
+        }
+    }
+
+    /**
+     * Starts an animal moving toward the other end of its line.
+     *
+     * @param animal The animal to turn.
+     */
+    private static void turn(Animal animal) {
+        Point location = animal.getLocation();
+        if (location.getX() >= EAST_END) {
+            animal.setOrientation(Orientation.WEST);
+            animal.startMoving(new Point(0, location.getY()));
+        } else {
+            animal.setOrientation(Orientation.EAST);
+            animal.startMoving(new Point(EAST_END, location.getY()));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package Benchmarks;
+
+import Competitions.ScoreEntry;
+import Competitions.Scores;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmarks {@link Scores#add(String)} with several threads recording finishes into the same scores.
+ * Every name is new to the scores it is added to: each thread has its own names, and when a thread has used
+ * all of them it replaces the shared scores with empty ones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Threads(4)
+public class ScoresBenchmark {
+
+    /**
+     * Number of names of each thread.
+     */
+    private static final int NAMES_PER_THREAD = 1 << 16;
+
+    /**
+     * The scores shared by all threads.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedScores {
+
+        /**
+         * The scores the threads record into.
+         */
+        volatile Scores scores = new Scores();
+
+        /**
+         * Counter giving each thread its own prefix.
+         */
+        final AtomicInteger threads = new AtomicInteger(0);
+    }
+
+    /**
+     * The names of one thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadNames {
+
+        /**
+         * The names, unique to the thread.
+         */
+        String[] names;
+
+        /**
+         * Index of the next name.
+         */
+        int next;
+
+        /**
+         * Creates the names of the thread.
+         *
+         * @param shared The shared state, used to number the thread.
+         */
+        @Setup
+        public void setUp(SharedScores shared) {
+            int thread = shared.threads.getAndIncrement();
+            names = new String[NAMES_PER_THREAD];
+            for (int i = 0; i < NAMES_PER_THREAD; ++i) {
+                names[i] = "group " + thread + "-" + i;
+            }
+            next = 0;
+        }
+    }
+
+    /**
+     * Records a finish.
+     *
+     * @param shared The shared scores.
+     * @param names  The names of the thread.
+     * @return The place of the finish.
+     */
+    @Benchmark
+    public int add(SharedScores shared, ThreadNames names) {
+        return record(shared, names);
+    }
+
+    /**
+     * Records a finish while another thread reads the ranking.
+     *
+     * @param shared The shared scores.
+     * @param names  The names of the thread.
+     * @return The place of the finish.
+     */
+    @Benchmark
+    @Group("ranking")
+    @GroupThreads(3)
+    public int addWhileRanking(SharedScores shared, ThreadNames names) {
+        return record(shared, names);
+    }
+
+    /**
+     * Reads the first places while the other threads of the group record finishes.
+     *
+     * @param shared The shared scores.
+     * @return The first places.
+     */
+    @Benchmark
+    @Group("ranking")
+    @GroupThreads(1)
+    public List<ScoreEntry> getTop(SharedScores shared) {
+        return shared.scores.getTop(10);
+    }
+
+    /**
+     * Records the next name of the thread, replacing the shared scores once the thread has used all its names.
+     *
+     * @param shared The shared scores.
+     * @param names  The names of the thread.
+     * @return The place of the finish.
+     */
+    private static int record(SharedScores shared, ThreadNames names) {
+        if (names.next == NAMES_PER_THREAD) {
+            names.next = 0;
+            shared.scores = new Scores();
+        }
+        return shared.scores.add(names.names[names.next++]);
+    }
+}
@@ -0,0 +1,107 @@
+package Benchmarks;
+
+import Animals.Animal;
+import Animals.Dog;
+import Graphics.ZooPanel;
+import Mobility.Point;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a full repaint of {@link ZooPanel#paintComponent(java.awt.Graphics)} into an offscreen image,
+ * with a growing number of racing animals spread over the panel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ZooPanelPaintBenchmark {
+
+    /**
+     * Width of the panel.
+     */
+    private static final int WIDTH = 935;
+
+    /**
+     * Height of the panel.
+     */
+    private static final int HEIGHT = 530;
+
+    /**
+     * Number of animals on the panel.
+     */
+    @Param({"10", "100", "1000"})
+    public int animals;
+
+    /**
+     * The panel to paint.
+     */
+    private ZooPanel zooPanel;
+
+    /**
+     * The offscreen image the panel is painted into.
+     */
+    private BufferedImage image;
+
+    /**
+     * The graphics context of the image.
+     */
+    private Graphics2D graphics;
+
+    /**
+     * Creates the panel, the animals and the offscreen image.
+     */
+    @Setup
+    public void setUp() {
+        zooPanel = new ZooPanel();
+        zooPanel.setSize(WIDTH, HEIGHT);
+
+        Random random = new Random(42);
+        Animal[] players = new Animal[animals];
+        for (int i = 0; i < animals; ++i) {
+            players[i] = new Dog("dog " + i, 60, 1, 1000, zooPanel);
+            players[i].setLocation(new Point(random.nextInt(WIDTH - 65), random.nextInt(HEIGHT - 65)));
+            players[i].setIsAvailable(false);
+        }
+        zooPanel.setPlayers(players);
+
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+    }
+
+    /**
+     * Releases the graphics context.
+     */
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    /**
+     * Paints the whole panel.
+     *
+     * @return The image painted into.
+     */
+    @Benchmark
+    public BufferedImage paint() {
+        zooPanel.paintComponent(graphics);
+        return image;
+    }
+}
@@ -143,7 +143,7 @@ public abstract class AirAnimal extends Animal {
      * This method calculates the starting point of the animal based on the competition route and panel height.
      */
     public void setInitialLocation(){
-        super.setLocation(new Point(0, 2*(getZooPanel().getHeight()/9) * (competitionRoute - 1)));
+        super.setLocation(getTrack().getStart());
 
     }
 
@@ -153,7 +153,7 @@ public abstract class AirAnimal extends Animal {
      */
     public void setDestination(){
 
-        super.setDestination(new Point(getZooPanel().getWidth() - 65, getLocationY()));
+        super.setDestination(new Point(getTrack().getEnd().getX(), getLocationY()));
 
     }
 
@@ -174,15 +174,7 @@ public abstract class AirAnimal extends Animal {
      */
     public double getDistance() {
 
-        return super.calcDistancePoint((new Point(getZooPanel().getWidth() - 65, getLocationY())));
-    }
-
-    /**
-     * Returns the length of the competition route.*
-     * @return the length of the route
-     */
-    public int getLenOfRoute(){
-        return getZooPanel().getWidth() - 65;
+        return super.calcDistancePoint(new Point(getTrack().getEnd().getX(), getLocationY()));
     }
 
 }
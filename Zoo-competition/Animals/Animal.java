@@ -2,7 +2,8 @@ package Animals;
 
 import java.lang.Cloneable;
 import java.awt.Graphics;
-import javax.swing.Timer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 import Mobility.ILocatable;
 import Mobility.Mobile;
 import Mobility.Point;
@@ -11,10 +12,8 @@ import Graphics.IDrawable;
 import Graphics.IMovable;
 import Graphics.IAnimal;
 import Graphics.CompetitionPanel;
-import java.awt.image.BufferedImage;
-import javax.imageio.ImageIO;
-import java.io.File;
-import java.io.IOException;
+import Graphics.SpriteAtlas;
+import Graphics.SpriteRegion;
 import Graphics.ZooPanel;
 
 /**
@@ -60,14 +59,10 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
     private int maxEnergy;
 
     /**
-     * Represents the current energy of the animal.
+     * The fixed-point energy account of the animal: energy eaten and consumed, and idle time.
+     * It is the only record of the current energy, which is read from it without any lock.
      */
-    private int currentEnergy;
-
-    /**
-     * Represents the total energy the animal has gained from eating.
-     */
-    private int totalEnergyFromEating;
+    private EnergyLedger energyLedger = new EnergyLedger();
 
     /**
      * Represents the energy consumed per meter of movement.
@@ -79,6 +74,12 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
      */
     private ZooPanel zooPanel;
 
+    /**
+     * The tracks the animal races on when it races without its panel, set by a {@link Competitions.TournamentSpec},
+     * or null to race on the tracks of its panel.
+     */
+    private volatile TrackGeometry trackGeometry;
+
     /**
      * The CompetitionPanel associated with this animal.
      * This panel represents the specific competition that the animal is participating in.
@@ -86,19 +87,47 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
     private CompetitionPanel panel;
 
     /**
-     * Represents the first buffered image associated with the animal.
+     * The kind of tournament the animal races in: 1 for regular, 2 for courier.
+     * Set by the tournament, so animals can race without a CompetitionPanel.
+     */
+    private int regularCourierTournament;
+
+    /**
+     * Represents the first sprite associated with the animal, pre-scaled to its size in the {@link SpriteAtlas}.
+     */
+    private SpriteRegion img1;
+
+    /**
+     * Indicates whether the animal is moving along a straight line.
+     * While set, the {@link SimulationEngine} moves the animal toward its target on every tick.
+     */
+    private volatile boolean moving;
+
+    /**
+     * Indicates whether the animal is walking along a complex path.
+     * While set, the {@link SimulationEngine} updates the side of the path on every tick.
+     */
+    private volatile boolean walking;
+
+    /**
+     * The point the animal is moving toward, or null to move toward its destination.
+     */
+    private volatile Point moveTarget;
+
+    /**
+     * Indicates whether the animal is scheduled in the {@link SimulationEngine}.
      */
-    private BufferedImage img1;
+    private AtomicBoolean scheduled = new AtomicBoolean(false);
 
     /**
-     * Timer used for moving the animal along a straight line.
+     * The thread waiting for the animal to make progress, or null if no thread is waiting.
      */
-    private Timer timer;
+    private volatile Thread progressWatcher;
 
     /**
-     * Timer used for moving the animal along a complex path.
+     * The total distance at which the waiting thread is woken up.
      */
-    private Timer moveTimer;
+    private volatile double progressTarget;
 
     /**
      * Indicates the completion status of the animal in a process or competition.
@@ -135,6 +164,18 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
      */
     private boolean isAvailable;
 
+    /**
+     * The registry indexing the animal, told about every change of its availability, or null if the animal is not registered.
+     */
+    private volatile AnimalRegistry registry;
+
+    /**
+     * The category of the animal, resolved from {@link #getCategory()} the first time it is needed,
+     * or null until then. Resolved lazily because {@link #getCategory()} is overridden by the subclasses,
+     * which are not constructed yet while the fields of this class are initialized.
+     */
+    private volatile Category categoryKind;
+
     /**
      * The destination point for the animal's movement.
      * This represents the target location the animal is moving towards.
@@ -174,9 +215,7 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
         this. name = name;
         this.speed = speed;
         this.maxEnergy = maxEnergy;
-        this.currentEnergy = 0;
         this.energyPerMeter = energyPerMeter;
-        this.totalEnergyFromEating = 0;
 
         this.gender = Gender.Hermaphrodite;
         this.weight = 10;
@@ -215,9 +254,7 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
         this. name = name;
         this.speed = speed;
         this.maxEnergy = maxEnergy;
-        this.currentEnergy = 0;
         this.energyPerMeter = energyPerMeter;
-        this.totalEnergyFromEating = 0;
 
         this.gender = Gender.Hermaphrodite;
         this.weight = 10;
@@ -326,9 +363,7 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
         this.id = id;
         this.orientation = orientation;
         this.maxEnergy = maxEnergy;
-        this.currentEnergy = 0;
         this.energyPerMeter = energyPerMeter;
-        this.totalEnergyFromEating = 0;
 
         this.zooPanel = pan;
 
@@ -362,9 +397,7 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
         this.id = 000000000;
         this.orientation = Orientation.EAST;
         this.maxEnergy = 200;
-        this.currentEnergy = 0;
         this.energyPerMeter = 30;
-        this.totalEnergyFromEating = 0;
         this.zooPanel = null;
 
         this.img1 = null;
@@ -473,16 +506,13 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
 
     /**
      * Loads the image for the animal based on the given image name.
-     * If the image cannot be loaded, it prints an error message.
+     * The image is taken from the shared {@link SpriteAtlas}, which scales it to the size of the animal only once per process.
+     * If the image cannot be loaded, the cache prints an error message.
      *
      * @param imageName the name of the image file to load (excluding file extension)
      */
     public void loadImages(String imageName) {
-        try {
-            img1 = ImageIO.read(new File(PICTURE_PATH + imageName + "_right_down.png"));
-        }
-        catch (IOException e) {
-            System.out.println("Cannot load images for " + imageName); }
+        img1 = SpriteAtlas.getInstance().getRegion(imageName, Orientation.EAST, size);
     }
 
     /**
@@ -492,8 +522,21 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
      * @param g the graphics context to draw on
      */
     public void drawObject (Graphics g) {
+        drawObject(g, getLocationX(), getLocationY(), getOrientation());
+    }
+
+    /**
+     * Draws the animal at a given location and orientation, such as the ones of an {@link AnimalSnapshot}.
+     * The animal's own state is not read, so the panels can draw a snapshot while the animal moves.
+     *
+     * @param g           the graphics context to draw on
+     * @param x           the x coordinate to draw at
+     * @param y           the y coordinate to draw at
+     * @param orientation the orientation to draw the animal with
+     */
+    public void drawObject(Graphics g, int x, int y, Orientation orientation) {
         if(img1 != null)
-            g.drawImage(img1, super.getLocationX(), super.getLocationY(), size, size, zooPanel);
+            img1.draw(g, x, y, zooPanel);
     }
 
     /**
@@ -505,7 +548,17 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
     @Override
     public Animal clone() throws AssertionError {
         try{
-            return (Animal)super.clone();
+            Animal copy = (Animal)super.clone();
+            copy.energyLedger = new EnergyLedger(energyLedger);
+            // The copy starts at rest, with its own scheduling flag and no thread waiting for it
+            copy.scheduled = new AtomicBoolean(false);
+            copy.moving = false;
+            copy.walking = false;
+            copy.moveTarget = null;
+            copy.progressWatcher = null;
+            copy.progressTarget = 0;
+            copy.registry = null;
+            return copy;
         }
         catch (CloneNotSupportedException e)
         {
@@ -524,11 +577,7 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
     public boolean eat(int energy) {
         if (energy <= 0)
             return false;
-        if (currentEnergy + energy > maxEnergy)
-            return false;
-        currentEnergy += energy; //update current energy
-        totalEnergyFromEating += energy; //update total energy from eating
-        return true;
+        return energyLedger.feed(energy, maxEnergy);
     }
 
     /**
@@ -539,64 +588,165 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
 
     /**
      * Starts moving the animal toward a specified destination.
-     * A timer is used to periodically move the animal toward the destination.
+     * The {@link SimulationEngine} moves the animal toward the destination on every tick.
      *
      */
     public void startMoving() {
-        timer = new Timer(100 / 60, e -> moveToward());
-        timer.start();
+        moveTarget = null;
+        moving = true;
+        SimulationEngine.getInstance().schedule(this);
+    }
+
+    /**
+     * Advances the animal by one tick of the {@link SimulationEngine}.
+     * Moves the animal toward its target and, if it walks along a complex path, updates the side of the path.
+     */
+    void advance() {
+        if (moving) {
+            Point target = moveTarget;
+            if (target == null)
+                moveToward();
+            else
+                moveToward(target);
+        }
+        if (walking)
+            updateSide();
+    }
+
+    /**
+     * Checks if the animal still has to be advanced by the {@link SimulationEngine}.
+     *
+     * @return true if the animal is moving or walking, false otherwise
+     */
+    boolean isActive() {
+        return moving || walking;
+    }
+
+    /**
+     * Marks the animal as scheduled in the {@link SimulationEngine}.
+     *
+     * @return true if the animal was not scheduled before, false otherwise
+     */
+    boolean markScheduled() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Marks the animal as no longer scheduled in the {@link SimulationEngine}.
+     * If the animal started moving again in the meantime, it stays scheduled.
+     *
+     * @return true if the animal was unscheduled, false if it has to stay scheduled
+     */
+    boolean unmarkScheduled() {
+        scheduled.set(false);
+        return !(isActive() && scheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * Registers the current thread to be woken up when the animal makes progress:
+     * when its total distance reaches the given target, or when it arrives at the end of a straight line.
+     *
+     * @param targetDistance the total distance at which the current thread is woken up
+     */
+    public void watchProgress(double targetDistance) {
+        progressTarget = targetDistance;
+        progressWatcher = Thread.currentThread();
+    }
+
+    /**
+     * Unregisters the thread waiting for the animal to make progress.
+     */
+    public void unwatchProgress() {
+        progressWatcher = null;
+    }
+
+    /**
+     * Parks the current thread until the animal makes progress.
+     * The thread must have been registered with {@link #watchProgress(double)}.
+     * May return spuriously, so callers check their condition again after it returns.
+     *
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    public void awaitProgress() throws InterruptedException {
+        LockSupport.park(this);
+        if (Thread.interrupted())
+            throw new InterruptedException("interrupted while waiting for " + name);
+    }
+
+    /**
+     * Wakes up the thread waiting for the animal, if the animal reached the target distance or arrived somewhere.
+     *
+     * @param arrived true if the animal has just arrived at the end of a straight line
+     */
+    private void signalProgress(boolean arrived) {
+        Thread watcher = progressWatcher;
+        if (watcher != null && (arrived || getTotalDistance() >= progressTarget))
+            LockSupport.unpark(watcher);
+    }
+
+    /**
+     * Stops the movement of the animal, both along a straight line and along a complex path.
+     */
+    public void stopMoving() {
+        moving = false;
+        walking = false;
     }
 
     /**
      * Moves the animal toward the specified destination point.
      * <p>
      * The animal moves in the direction of its current orientation (East, West, North, South) until it reaches
-     * the destination or runs out of energy. If the animal's energy drops below zero, it stops moving and energy is set to zero.
+     * the destination or runs out of energy. The energy of the distance actually moved is taken from the {@link EnergyLedger};
+     * when the energy is used up, the animal stops moving and the ledger counts the idle time until it eats again.
      * </p>
      *
      */
     protected void moveToward() {
-        double frameSpeed = speed / 60;
+        double frameSpeed = getSpeed() / 60;
         if (frameSpeed < 1)
             frameSpeed = 1;
-        // && timer != null && moveTimer != null
-        if (currentEnergy <= 0 ) {
-            timer.stop();
-            if(moveTimer != null)
-                moveTimer.stop();
-            currentEnergy = 0;
+        boolean arrived = false;
+        double moved = 0;
+        if (energyLedger.getCurrentExact() <= 0) {
+            stopMoving();
+            energyLedger.stall();
             setNeedToMove(true);
             return;
         }
+        Orientation orientation = getOrientation();
         if (orientation == Orientation.EAST || orientation == Orientation.WEST) {
             if (Math.abs(getLocationX() - destination.getX()) <= frameSpeed) {
-                move(destination);
-                timer.stop();
+                moved = moveTo(destination.getX(), destination.getY());
+                moving = false;
+                arrived = true;
 
             } else {
                 if (destination.getX() > getLocationX())
-                    move(new Point((int) (getLocationX() + frameSpeed), getLocationY()));
+                    moved = moveTo((int) (getLocationX() + frameSpeed), getLocationY());
                 else
-                    move(new Point((int) (getLocationX() - frameSpeed), getLocationY()));
+                    moved = moveTo((int) (getLocationX() - frameSpeed), getLocationY());
             }
 
         }
         else if (orientation == Orientation.SOUTH || orientation == Orientation.NORTH) {
 
             if (Math.abs(getLocationY() - destination.getY()) <= frameSpeed) {
-                move(destination);
-                timer.stop();
+                moved = moveTo(destination.getX(), destination.getY());
+                moving = false;
+                arrived = true;
 
             } else {
                 if (destination.getY() > getLocationY())
-                    move(new Point(getLocationX(), (int)(getLocationY() + frameSpeed)));
+                    moved = moveTo(getLocationX(), (int)(getLocationY() + frameSpeed));
                 else
-                    move(new Point(getLocationX(), (int)(getLocationY() - frameSpeed)));
+                    moved = moveTo(getLocationX(), (int)(getLocationY() - frameSpeed));
             }
 
         }
 
-        currentEnergy -= frameSpeed*energyPerMeter;
+        energyLedger.consume(moved * energyPerMeter);
+
+        signalProgress(arrived);
 
 
     }
@@ -607,10 +757,7 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
      * @return true if the animal is moving, false otherwise
      */
     public boolean isMoving() {
-        if (timer != null) {
-            return timer.isRunning();
-        }
-        return false;
+        return moving;
     }
 
     /**
@@ -631,13 +778,22 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
         return maxEnergy;
     }
 
+    /**
+     * Returns the energy the animal consumes per meter of movement.
+     *
+     * @return the energy per meter
+     */
+    public int getEnergyPerMeter() {
+        return energyPerMeter;
+    }
+
     /**
      * Returns the current energy of the animal.
      *
      * @return the current energy
      */
     public int getCurrentEnergy() {
-        return currentEnergy;
+        return energyLedger.getCurrent();
     }
 
     /**
@@ -696,7 +852,16 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
      * @return the total energy from eating
      */
     public int getTotalEnergyFromEating() {
-        return totalEnergyFromEating;
+        return energyLedger.getEaten();
+    }
+
+    /**
+     * Returns the energy account of the animal, whose totals can be read at any time without locking.
+     *
+     * @return the energy ledger
+     */
+    public EnergyLedger getEnergyLedger() {
+        return energyLedger;
     }
 
     /**
@@ -709,12 +874,12 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
     }
 
     /**
-     * Returns the move timer used for moving the animal along a complex path.
+     * Checks if the animal is walking along a complex path.
      *
-     * @return the move timer
+     * @return true if the animal is walking, false otherwise
      */
-    public Timer getMoveTimer() {
-        return moveTimer;
+    public boolean isWalking() {
+        return walking;
     }
 
     /**
@@ -740,15 +905,6 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
         return false;
     }
 
-    /**
-     * Sets the move timer used for moving the animal along a complex path.
-     *
-     * @param moveTimer the move timer to set
-     */
-    public void setMoveTimer(Timer moveTimer) {
-        this.moveTimer = moveTimer;
-    }
-
     /**
      * Sets the completion status of the animal.
      *
@@ -773,6 +929,17 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
      */
     public void setIsAvailable(boolean available) {
         isAvailable = available;
+        AnimalRegistry current = registry;
+        if (current != null)
+            current.availabilityChanged(this);
+    }
+
+    /**
+     * Sets the registry indexing the animal. Called by the {@link AnimalRegistry} only.
+     * @param registry the registry, or null when the animal leaves it
+     */
+    void setRegistry(AnimalRegistry registry) {
+        this.registry = registry;
     }
 
     /**
@@ -783,6 +950,26 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
         this.zooPanel = zooPanel;
     }
 
+    /**
+     * Gets the tracks the animal races on: its own tracks if it was given some, otherwise the tracks of its panel.
+     * An animal with neither races on the tracks of an {@link TrackGeometry#EMPTY empty} zoo.
+     * @return the track geometry of the animal
+     */
+    public TrackGeometry getTrackGeometry() {
+        TrackGeometry geometry = trackGeometry;
+        if (geometry != null)
+            return geometry;
+        return zooPanel != null ? zooPanel.getTrackGeometry() : TrackGeometry.EMPTY;
+    }
+
+    /**
+     * Sets the tracks the animal races on instead of the tracks of its panel.
+     * @param trackGeometry the track geometry, or null to race on the tracks of the panel again
+     */
+    public void setTrackGeometry(TrackGeometry trackGeometry) {
+        this.trackGeometry = trackGeometry;
+    }
+
 //    public void setLocation(int width, int height){
 //
 //
@@ -810,14 +997,6 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
         return 0;
     }
 
-    /**
-     * Gets the Timer associated with the animal.
-     * @return the Timer object
-     */
-    public Timer getTimer() {
-        return timer;
-    }
-
     /**
      * Abstract method to set the initial location of the animal.
      */
@@ -839,6 +1018,22 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
         this.panel = panel;
     }
 
+    /**
+     * Gets the kind of tournament the animal races in.
+     * @return 1 for regular, 2 for courier, or 0 if the animal was never set up in a tournament
+     */
+    public int getRegularCourierTournament() {
+        return regularCourierTournament;
+    }
+
+    /**
+     * Sets the kind of tournament the animal races in.
+     * @param regularCourierTournament 1 for regular, 2 for courier
+     */
+    public void setRegularCourierTournament(int regularCourierTournament) {
+        this.regularCourierTournament = regularCourierTournament;
+    }
+
     /**
      * Gets the destination point of the animal.
      * @return the destination point
@@ -869,10 +1064,80 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
     }
 
     /**
-     * Abstract method to get the length of the route for the animal.
+     * Gets the length of the route for the animal: the length of its {@link #getTrack() track}.
      * @return the length of the route
      */
-    public abstract int getLenOfRoute();
+    public int getLenOfRoute(){
+        return (int) getTrack().getLength();
+    }
+
+    /**
+     * Gets the track the animal races on, from its {@link #getTrackGeometry() track geometry}.
+     * @return the track of the competition route of the animal
+     */
+    public Track getTrack(){
+        return getTrack(getTrackGeometry());
+    }
+
+    /**
+     * Gets the track the animal races on in a given track geometry.
+     * @param geometry the track geometry
+     * @return the track of the competition route of the animal
+     */
+    Track getTrack(TrackGeometry geometry){
+        return geometry.getTrack(getCategoryKind(), getCompetitionRoute());
+    }
+
+    /**
+     * Moves the animal from a track to the same track coordinates on another track, after the zoo was resized.
+     * The destination and the point the animal moves toward follow it, and the distance the waiting thread expects
+     * the animal to cover is replaced by the distance left to the same coordinates on the new track.
+     * Distances on the new track are rounded to whole pixels, so the animal still arrives exactly where its race ends.
+     * @param from the track of the animal before the resize
+     * @param to   the track of the animal after the resize
+     */
+    void reproject(Track from, Track to) {
+        double along = from.getDistance(getLocationX(), getLocationY());
+        double newAlong = Math.round(to.getDistanceAtCoordinate(from.toCoordinate(along)));
+
+        if (progressWatcher != null) {
+            double targetAlong = along + (progressTarget - getTotalDistance());
+            double newTargetAlong;
+            if (targetAlong <= from.getLength() || from.getLength() <= 0)
+                newTargetAlong = Math.round(to.getDistanceAtCoordinate(from.toCoordinate(targetAlong)));
+            else // Beyond the end of the track: scale what is left past the end
+                newTargetAlong = to.getLength() + (targetAlong - from.getLength()) * to.getLength() / from.getLength();
+            progressTarget = getTotalDistance() + newTargetAlong - newAlong;
+        }
+
+        setLocation(to.getPoint(newAlong));
+        if (destination != null)
+            destination = reproject(from, to, destination);
+        Point target = moveTarget;
+        if (target != null)
+            moveTarget = reproject(from, to, target);
+    }
+
+    /**
+     * Moves a point from a track to the same track coordinates on another track.
+     * @param from  the track of the point
+     * @param to    the track to move the point to
+     * @param point the point, projected on the first track if it is not on it
+     * @return the point at the same coordinates on the second track
+     */
+    private static Point reproject(Track from, Track to, Point point) {
+        double along = from.getDistance(point.getX(), point.getY());
+        return to.getPoint(Math.round(to.getDistanceAtCoordinate(from.toCoordinate(along))));
+    }
+
+    /**
+     * Gets the total distance at which the thread watching the animal is woken up.
+     * It changes when the zoo is resized during a race, with the length of the track.
+     * @return the target distance set by {@link #watchProgress(double)}
+     */
+    public double getProgressTarget() {
+        return progressTarget;
+    }
 
     /**
      * Gets the initial X coordinate of the animal.
@@ -888,17 +1153,40 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
      * @return the corresponding number
      */
     public int getAnimalAsNumber(String animalCategory) {
-        switch (animalCategory) {
-            case "Water":
-                return 1;
-            case "Air":
-                return 2;
-            case "Terrestrial":
-                return 3;
-            case "Terrestrial+Water":
-                return 1;
+        Category category = Category.fromName(animalCategory);
+        return category == null ? 0 : category.getCompetitionType();
+    }
+
+    /**
+     * Gets the category of the animal as a {@link Category}.
+     * @return the category of the animal, or null if it is unknown
+     */
+    public Category getCategoryKind() {
+        Category category = categoryKind;
+        if (category == null) {
+            // Resolving twice from two threads gives the same constant
+            category = Category.fromName(getCategory());
+            categoryKind = category;
         }
-        return 0;
+        return category;
+    }
+
+    /**
+     * Gets the competition type the animal races in.
+     * @return 1 for water, 2 for air, 3 for terrestrial, or 0 if the category is unknown
+     */
+    public int getCompetitionType() {
+        Category category = getCategoryKind();
+        return category == null ? 0 : category.getCompetitionType();
+    }
+
+    /**
+     * Checks whether the animal races around a loop of the zoo, turning at the corners, rather than along a straight route.
+     * @return true if the animal races around a loop, false otherwise
+     */
+    public boolean isOnLoopTrack() {
+        Category category = getCategoryKind();
+        return category != null && category.isLoopTrack();
     }
 
     /**
@@ -922,45 +1210,33 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
      */
     public void startMoveTerrestrial() {
 
-        this.setMoveTimer(new Timer(1000 / 60, e -> updateSide()));
-        this.getMoveTimer().start();
+        walking = true;
+        SimulationEngine.getInstance().schedule(this);
 
         if (this.isDone() < 4)
-            if (this.getMoveTimer() != null)
-                this.startMoving();
+            this.startMoving();
 
     }
 
     /**
      * Updates the direction of the animal and handles movement along the rectangular path.
+     * The corners of the path are the corners of the track of the animal.
      */
     private void updateSide() {
 
-        if (this.getLocation().equals(new Point(this.getZooPanel().getWidth() - 65,0))) {
-            this.setOrientation(Orientation.SOUTH);
+        Track track = getTrack();
+        int corner = track.getCorner(getLocationX(), getLocationY());
+        if (corner > 0) {
+            // Turn onto the next side and count the sides done
+            this.setOrientation(track.getSegmentOrientation(corner));
             this.startMoving();
-            this.setDone(1);
-
+            this.setDone(corner);
 
-        } else if (this.getLocation().equals(new Point(this.getZooPanel().getWidth() - 65, this.getZooPanel().getHeight() - 65))) {
-            this.setOrientation(Orientation.WEST);
-            this.startMoving();
-            this.setDone(2);
-        }
-        else if (this.getLocation().equals(new Point(0, this.getZooPanel().getHeight() - 65))) {
-
-            this.setOrientation(Orientation.NORTH);
-//            setNeededDistance(neededDistance+participant.calcDistancePoint(new Point(0, 0)));
-
-            this.startMoving();
-            this.setDone(3);
-
-        } else if (this.getLocation().equals(new Point(0, 0))) {
-            this.setOrientation(Orientation.EAST);
+        } else if (corner == 0) {
+            this.setOrientation(track.getSegmentOrientation(0));
             if (this.isDone() > 0) {
-                if (this.getMoveTimer() != null) {
-                    this.getMoveTimer().stop();
-                    this.setMoveTimer(null);
+                if (walking) {
+                    walking = false;
                     this.setDone(0);
                 }
 
@@ -975,8 +1251,9 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
      * @param destination the point to move towards
      */
     public void startMoving(Point destination) {
-        timer = new Timer(100 / 60, e -> moveToward(destination));
-        timer.start();
+        moveTarget = destination;
+        moving = true;
+        SimulationEngine.getInstance().schedule(this);
     }
 
     /**
@@ -984,58 +1261,53 @@ public abstract class Animal extends Mobile implements IAnimal,IMovable, Cloneab
      * @param destination the point to move towards
      */
     protected void moveToward(Point destination) {
-        double frameSpeed = speed / 60;
+        double frameSpeed = getSpeed() / 60;
         if (frameSpeed < 1)
             frameSpeed = 1;
-        // && timer != null && moveTimer != null
-        if (currentEnergy <= 0 ) {
-            if (timer != null) {
-                timer.stop();
-//                timer = null;
-            }
-            if(moveTimer != null)
-                moveTimer.stop();
-            currentEnergy = 0;
+        boolean arrived = false;
+        double moved = 0;
+        if (energyLedger.getCurrentExact() <= 0) {
+            stopMoving();
+            energyLedger.stall();
             setNeedToMove(true);
             return;
         }
+        Orientation orientation = getOrientation();
         if (orientation == Orientation.EAST || orientation == Orientation.WEST) {
             if (Math.abs(getLocationX() - destination.getX()) <= frameSpeed) {
-                move(destination);
-                if (timer != null) {
-                    timer.stop();
-//                    timer = null;
-                }
+                moved = moveTo(destination.getX(), destination.getY());
+                moving = false;
+                arrived = true;
 
 
             } else {
                 if (destination.getX() > getLocationX())
-                    move(new Point((int) (getLocationX() + frameSpeed), getLocationY()));
+                    moved = moveTo((int) (getLocationX() + frameSpeed), getLocationY());
                 else
-                    move(new Point((int) (getLocationX() - frameSpeed), getLocationY()));
+                    moved = moveTo((int) (getLocationX() - frameSpeed), getLocationY());
             }
 
         }
         else if (orientation == Orientation.SOUTH || orientation == Orientation.NORTH) {
 
             if (Math.abs(getLocationY() - destination.getY()) <= frameSpeed) {
-                move(destination);
-                if (timer != null) {
-                    timer.stop();
-//                    timer = null;
-                }
+                moved = moveTo(destination.getX(), destination.getY());
+                moving = false;
+                arrived = true;
 
 
             } else {
                 if (destination.getY() > getLocationY())
-                    move(new Point(getLocationX(), (int)(getLocationY() + frameSpeed)));
+                    moved = moveTo(getLocationX(), (int)(getLocationY() + frameSpeed));
                 else
-                    move(new Point(getLocationX(), (int)(getLocationY() - frameSpeed)));
+                    moved = moveTo(getLocationX(), (int)(getLocationY() - frameSpeed));
             }
 
         }
 
-        currentEnergy -= frameSpeed*energyPerMeter;
+        energyLedger.consume(moved * energyPerMeter);
+
+        signalProgress(arrived);
 
 
     }
@@ -0,0 +1,311 @@
+package Animals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the animals of a zoo with the indexes the panels query: the animals in the order they were added,
+ * a lookup by name, and the available animals by category and by category and route.
+ * <p>
+ * Adding an animal takes amortized constant time, and the indexes are kept up to date as the animals change:
+ * a registered animal reports every change of its availability to the registry, so counting or listing the
+ * available animals of a competition never scans the whole zoo. The route of an animal is indexed when it is added,
+ * since it is fixed when the animal is created.
+ * The indexes compare the animals by identity: {@link Animal#equals(Object)} depends on the location and the state
+ * of the animal, which change while it races, so an equality-based set could lose track of an animal.
+ * </p>
+ * The methods are synchronized: availability changes come from the tournament threads while the panels query the registry
+ * on the event dispatch thread. The counts are the exception: they read the {@link AvailabilityCounters} of the registry,
+ * which take no lock, so counting never waits for a tournament thread releasing its animals.
+ */
+public class AnimalRegistry {
+
+    /**
+     * The animals in the order they were added.
+     */
+    private final List<Animal> animals;
+
+    /**
+     * The position of each animal in {@link #animals}, used to list the animals in the order they were added.
+     */
+    private final Map<Animal, Integer> positions;
+
+    /**
+     * The animals by name. When two animals have the same name, the first one added is kept.
+     */
+    private final Map<String, Animal> byName;
+
+    /**
+     * The available animals by category, in identity sets.
+     */
+    private final Map<Category, Set<Animal>> availableByCategory;
+
+    /**
+     * The available animals by category and route, in identity sets.
+     */
+    private final Map<Category, Map<Integer, Set<Animal>>> availableByRoute;
+
+    /**
+     * The number of available animals, changed whenever an animal enters or leaves the available indexes.
+     */
+    private final AvailabilityCounters counters;
+
+    /**
+     * The animals as an array, or null if it must be built again.
+     */
+    private Animal[] array;
+
+    /**
+     * Constructs an empty AnimalRegistry.
+     */
+    public AnimalRegistry() {
+        this.animals = new ArrayList<>();
+        this.positions = new IdentityHashMap<>();
+        this.byName = new HashMap<>();
+        this.availableByCategory = new EnumMap<>(Category.class);
+        this.availableByRoute = new EnumMap<>(Category.class);
+        this.counters = new AvailabilityCounters();
+        this.array = null;
+    }
+
+    /**
+     * Adds an animal to the registry. The animal then reports its availability changes to the registry.
+     *
+     * @param animal The animal to add.
+     * @return true if the animal was added, false if it is null or already in the registry.
+     */
+    public synchronized boolean register(Animal animal) {
+        if (animal == null || positions.containsKey(animal))
+            return false;
+        positions.put(animal, animals.size());
+        animals.add(animal);
+        byName.putIfAbsent(animal.getAnimalName(), animal);
+        array = null;
+        animal.setRegistry(this);
+        index(animal);
+        return true;
+    }
+
+    /**
+     * Replaces all the animals of the registry.
+     *
+     * @param players The new animals, or null for none. Null entries are skipped.
+     */
+    public synchronized void setAll(Animal[] players) {
+        clear();
+        if (players != null) {
+            for (Animal animal : players) {
+                register(animal);
+            }
+        }
+    }
+
+    /**
+     * Removes all the animals from the registry.
+     */
+    public synchronized void clear() {
+        for (Animal animal : animals) {
+            animal.setRegistry(null);
+        }
+        animals.clear();
+        positions.clear();
+        byName.clear();
+        availableByCategory.clear();
+        availableByRoute.clear();
+        counters.clear();
+        array = null;
+    }
+
+    /**
+     * Moves an animal to or from the available indexes according to its current availability.
+     * Called by a registered animal when its availability changes; animals not in the registry are ignored.
+     *
+     * @param animal The animal whose availability changed.
+     */
+    synchronized void availabilityChanged(Animal animal) {
+        if (positions.containsKey(animal))
+            index(animal);
+    }
+
+    /**
+     * Returns the number of animals.
+     *
+     * @return The number of animals in the registry.
+     */
+    public synchronized int size() {
+        return animals.size();
+    }
+
+    /**
+     * Returns whether the registry has no animal.
+     *
+     * @return true if the registry is empty, false otherwise.
+     */
+    public synchronized boolean isEmpty() {
+        return animals.isEmpty();
+    }
+
+    /**
+     * Returns whether an animal is in the registry.
+     *
+     * @param animal The animal.
+     * @return true if the animal was added and not removed, false otherwise.
+     */
+    public synchronized boolean contains(Animal animal) {
+        return positions.containsKey(animal);
+    }
+
+    /**
+     * Returns the animals in the order they were added.
+     * The array is shared by the callers until the next change, and must not be modified.
+     *
+     * @return The animals, or null if the registry is empty.
+     */
+    public synchronized Animal[] toArray() {
+        if (animals.isEmpty())
+            return null;
+        if (array == null)
+            array = animals.toArray(new Animal[0]);
+        return array;
+    }
+
+    /**
+     * Finds an animal by its name.
+     *
+     * @param name The name of the animal.
+     * @return The first animal added with that name, or null if there is none.
+     */
+    public synchronized Animal findByName(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * Returns the number of available animals.
+     *
+     * @return The number of animals not racing in a tournament.
+     */
+    public int countAvailable() {
+        return counters.get();
+    }
+
+    /**
+     * Returns the number of available animals of some categories.
+     *
+     * @param categories The categories.
+     * @return The number of available animals of the categories.
+     */
+    public int countAvailable(Category... categories) {
+        return counters.get(categories);
+    }
+
+    /**
+     * Returns the number of available animals of some categories on a route.
+     *
+     * @param route      The competition route.
+     * @param categories The categories.
+     * @return The number of available animals of the categories on the route.
+     */
+    public int countAvailableOnRoute(int route, Category... categories) {
+        return counters.getOnRoute(route, categories);
+    }
+
+    /**
+     * Returns the available animals of some categories, in the order they were added.
+     *
+     * @param categories The categories.
+     * @return The available animals of the categories.
+     */
+    public synchronized List<Animal> getAvailable(Category... categories) {
+        List<Animal> list = new ArrayList<>();
+        for (Category category : categories) {
+            Set<Animal> available = availableByCategory.get(category);
+            if (available != null)
+                list.addAll(available);
+        }
+        return ordered(list);
+    }
+
+    /**
+     * Returns the available animals of some categories on a route, in the order they were added.
+     *
+     * @param route      The competition route.
+     * @param categories The categories.
+     * @return The available animals of the categories on the route.
+     */
+    public synchronized List<Animal> getAvailableOnRoute(int route, Category... categories) {
+        List<Animal> list = new ArrayList<>();
+        for (Category category : categories) {
+            Set<Animal> available = getRouteSet(category, route);
+            if (available != null)
+                list.addAll(available);
+        }
+        return ordered(list);
+    }
+
+    /**
+     * Puts an animal in the available indexes if it is available, and removes it from them otherwise.
+     * The counters change only when the animal actually enters or leaves the indexes,
+     * so reporting the same availability twice counts it once. Animals of an unknown category are not indexed.
+     *
+     * @param animal The animal.
+     */
+    private void index(Animal animal) {
+        Category category = animal.getCategoryKind();
+        if (category == null)
+            return;
+        int route = animal.getCompetitionRoute();
+        Set<Animal> byCategory = availableByCategory.computeIfAbsent(category, key -> newIdentitySet());
+        Set<Animal> byRoute = availableByRoute.computeIfAbsent(category, key -> new HashMap<>())
+                .computeIfAbsent(route, key -> newIdentitySet());
+        if (animal.isAvailable()) {
+            byRoute.add(animal);
+            if (byCategory.add(animal))
+                counters.add(category, route, 1);
+        } else {
+            byRoute.remove(animal);
+            if (byCategory.remove(animal))
+                counters.add(category, route, -1);
+        }
+    }
+
+    /**
+     * Returns the available animals of a category on a route.
+     *
+     * @param category The category.
+     * @param route    The competition route.
+     * @return The set of animals, or null if no animal of the category was ever on the route.
+     */
+    private Set<Animal> getRouteSet(Category category, int route) {
+        Map<Integer, Set<Animal>> routes = availableByRoute.get(category);
+        return routes == null ? null : routes.get(route);
+    }
+
+    /**
+     * Creates an empty set of animals compared by identity.
+     * The order of the set does not matter: the lists returned by the registry are sorted by {@link #ordered(List)}.
+     *
+     * @return The new set.
+     */
+    private static Set<Animal> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Sorts animals in the order they were added.
+     *
+     * @param list The animals.
+     * @return The list, sorted.
+     */
+    private List<Animal> ordered(List<Animal> list) {
+        if (list.size() > 1)
+            list.sort(Comparator.comparingInt(positions::get));
+        return list;
+    }
+}
@@ -0,0 +1,263 @@
+package Animals;
+
+/**
+ * An immutable copy of the state of one animal at the end of a tick: what the panels need to draw the animal
+ * and to fill the info table. All fields are final, so a snapshot handed to another thread through a volatile
+ * reference is always seen whole, and its location and orientation always belong to the same tick.
+ */
+public final class AnimalSnapshot {
+
+    /**
+     * The animal the snapshot was taken from. Used to draw its images, never to read its state.
+     */
+    private final Animal animal;
+
+    /**
+     * The name of the animal.
+     */
+    private final String name;
+
+    /**
+     * The type of the animal.
+     */
+    private final String type;
+
+    /**
+     * The category of the animal.
+     */
+    private final String category;
+
+    /**
+     * The x coordinate of the location.
+     */
+    private final int x;
+
+    /**
+     * The y coordinate of the location.
+     */
+    private final int y;
+
+    /**
+     * The size of the animal's image.
+     */
+    private final int size;
+
+    /**
+     * The orientation of the animal.
+     */
+    private final Orientation orientation;
+
+    /**
+     * Whether the animal is available, that is not racing or waiting in a tournament.
+     */
+    private final boolean available;
+
+    /**
+     * The speed of the animal.
+     */
+    private final double speed;
+
+    /**
+     * The current energy, rounded down.
+     */
+    private final int energy;
+
+    /**
+     * The total energy eaten.
+     */
+    private final int eaten;
+
+    /**
+     * The total energy consumed by moving.
+     */
+    private final int consumed;
+
+    /**
+     * The total distance traveled.
+     */
+    private final double totalDistance;
+
+    /**
+     * Takes a snapshot of an animal.
+     * Must be called while the animal is not being advanced, for example from a {@link ISimulationObserver}.
+     *
+     * @param animal The animal.
+     */
+    public AnimalSnapshot(Animal animal) {
+        EnergyLedger ledger = animal.getEnergyLedger();
+        this.animal = animal;
+        this.name = animal.getAnimalName();
+        this.type = animal.getType();
+        this.category = animal.getCategory();
+        this.x = animal.getLocationX();
+        this.y = animal.getLocationY();
+        this.size = animal.getSize();
+        this.orientation = animal.getOrientation();
+        this.available = animal.isAvailable();
+        this.speed = animal.getSpeed();
+        this.energy = ledger.getCurrent();
+        this.eaten = ledger.getEaten();
+        this.consumed = ledger.getConsumed();
+        this.totalDistance = animal.getTotalDistance();
+    }
+
+    /**
+     * Returns the animal the snapshot was taken from.
+     *
+     * @return The animal.
+     */
+    public Animal getAnimal() {
+        return animal;
+    }
+
+    /**
+     * Returns the name of the animal.
+     *
+     * @return The name.
+     */
+    public String getAnimalName() {
+        return name;
+    }
+
+    /**
+     * Returns the type of the animal.
+     *
+     * @return The type.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the category of the animal.
+     *
+     * @return The category.
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Returns the x coordinate of the location.
+     *
+     * @return The x coordinate.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Returns the y coordinate of the location.
+     *
+     * @return The y coordinate.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Returns the size of the animal's image.
+     *
+     * @return The size.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the orientation of the animal.
+     *
+     * @return The orientation.
+     */
+    public Orientation getOrientation() {
+        return orientation;
+    }
+
+    /**
+     * Returns whether the animal was available.
+     *
+     * @return true if the animal was not in a tournament, false otherwise.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Returns the speed of the animal.
+     *
+     * @return The speed.
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Returns the current energy.
+     *
+     * @return The current energy, rounded down.
+     */
+    public int getEnergy() {
+        return energy;
+    }
+
+    /**
+     * Returns the total energy eaten.
+     *
+     * @return The energy eaten.
+     */
+    public int getEaten() {
+        return eaten;
+    }
+
+    /**
+     * Returns the total energy consumed by moving.
+     *
+     * @return The energy consumed.
+     */
+    public int getConsumed() {
+        return consumed;
+    }
+
+    /**
+     * Returns the total distance traveled.
+     *
+     * @return The total distance.
+     */
+    public double getTotalDistance() {
+        return totalDistance;
+    }
+
+    /**
+     * Returns whether the animal must be drawn at a different place or with a different image than in another snapshot.
+     *
+     * @param other The other snapshot of the same animal, or null.
+     * @return true if the location, the size or the orientation differ, or the other snapshot is null.
+     */
+    public boolean movedSince(AnimalSnapshot other) {
+        return other == null || x != other.x || y != other.y || size != other.size || orientation != other.orientation;
+    }
+
+    /**
+     * Returns whether the snapshot still matches the state of an animal, so it can be published again instead of a new one.
+     *
+     * @param animal The animal the snapshot was taken from.
+     * @return true if nothing shown by the panels changed since the snapshot was taken, false otherwise.
+     */
+    public boolean isCurrent(Animal animal) {
+        EnergyLedger ledger = animal.getEnergyLedger();
+        return x == animal.getLocationX() && y == animal.getLocationY() && orientation == animal.getOrientation()
+                && available == animal.isAvailable() && size == animal.getSize() && speed == animal.getSpeed()
+                && totalDistance == animal.getTotalDistance() && energy == ledger.getCurrent()
+                && eaten == ledger.getEaten() && consumed == ledger.getConsumed() && name == animal.getAnimalName();
+    }
+
+    /**
+     * Returns a string representation of the snapshot.
+     *
+     * @return A string with the name, the location and the orientation.
+     */
+    @Override
+    public String toString() {
+        return name + " at (" + x + ", " + y + ") facing " + orientation;
+    }
+}
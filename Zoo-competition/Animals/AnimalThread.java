@@ -1,16 +1,17 @@
 package Animals;
 
-import static java.lang.Thread.currentThread;
 import static java.lang.Thread.sleep;
+import Competitions.CourierBaton;
 import Competitions.SleepTime;
 import Mobility.Point;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
-import javax.swing.Timer;
 
 /**
  * Represents a thread that handles the movement of an animal in a competition.
  * This thread will wait for a start signal, move the animal until it has covered
  * the required distance, and then notify that the animal has finished moving.
+ * In a courier tournament the start signal and the finish notification are replaced by the group's {@link CourierBaton}.
  */
 public class AnimalThread implements Runnable {
 
@@ -26,118 +27,188 @@ public class AnimalThread implements Runnable {
     private double neededDistance;
 
     /**
-     * Flag indicating whether the thread should start processing.
+     * Signal released when the thread should start processing.
      */
-    private AtomicBoolean startFlag;
+    private CountDownLatch startSignal;
 
     /**
-     * Flag indicating whether the thread has finished processing.
+     * Signal counted down when the animal has covered its distance.
      */
-    private AtomicBoolean finishFlag;
+    private CountDownLatch finishSignal;
 
     /**
      * Flag indicating whether the thread has completed its work.
      */
     private AtomicBoolean isThreadFinished;
 
+    /**
+     * The baton of the courier group of the animal, or null if the animal races alone.
+     */
+    private CourierBaton baton;
+
+    /**
+     * The leg the animal runs in its courier group, starting at 0.
+     */
+    private int leg;
+
     /**
      * Constructs an AnimalThread with the given parameters.
      *
      * @param participant The animal that this thread will operate on.
      * @param neededDistance The distance the animal needs to cover.
-     * @param startFlag A flag indicating whether the thread should start processing.
-     * @param finishFlag A flag indicating whether the thread has finished processing.
+     * @param startSignal A signal released when the thread should start processing.
+     * @param finishSignal A signal counted down when the animal has covered its distance.
      */
-    public AnimalThread(Animal participant, double neededDistance, AtomicBoolean startFlag, AtomicBoolean finishFlag) {
+    public AnimalThread(Animal participant, double neededDistance, CountDownLatch startSignal, CountDownLatch finishSignal) {
         this.participant = participant;
         this.neededDistance = neededDistance;
-        this.startFlag = startFlag;
-        this.finishFlag = finishFlag;
+        this.startSignal = startSignal;
+        this.finishSignal = finishSignal;
+        isThreadFinished = new AtomicBoolean(false);
+    }
+
+    /**
+     * Constructs an AnimalThread for a runner of a courier group.
+     * The thread starts when the runner receives the baton, and passes the baton when the runner covered its distance.
+     *
+     * @param participant The animal that this thread will operate on.
+     * @param neededDistance The distance the animal needs to cover.
+     * @param baton The baton of the group.
+     * @param leg The leg the animal runs, starting at 0.
+     */
+    public AnimalThread(Animal participant, double neededDistance, CourierBaton baton, int leg) {
+        this.participant = participant;
+        this.neededDistance = neededDistance;
+        this.baton = baton;
+        this.leg = leg;
         isThreadFinished = new AtomicBoolean(false);
     }
 
 
     /**
      * The main logic for the thread. Waits for the start signal, moves the animal,
-     * and monitors its progress until the required distance is covered.
+     * and parks until the movement steps report that the required distance is covered.
+     * If the thread is interrupted because the tournament was aborted, the animal stops and goes back to its start
+     * without signalling its finish, and the interrupt status is kept.
      */
     @Override
     public void run() {
 
-        // Wait for the start signal
-        synchronized (startFlag) {
-            while (!startFlag.get()) {
-                try {
-                    startFlag.wait();
-                } catch (InterruptedException e) {
-                    System.out.println(e.getMessage());
-                }
-            }
+        // Wait for the start signal, or for the baton in a courier group
+        try {
+            awaitStart();
+        } catch (InterruptedException e) {
+            abort();
+            return;
         }
 
 
         // Process animal movement
-        synchronized (participant) {
-            double oldDistance = participant.getTotalDistance();
+        boolean loopTrack = participant.isOnLoopTrack();
+        double oldDistance = participant.getTotalDistance();
+        participant.watchProgress(oldDistance + neededDistance);
+
+        // Start moving the animal based on its type
+        if (!loopTrack)
+            participant.startMoving();
+        else
+            participant.startMoveTerrestrial();
+
 
-            // Start moving the animal based on its type
-            if ((participant.getAnimalAsNumber(participant.getCategory())) != 3)
-                participant.startMoving();
-            else
-                participant.startMoveTerrestrial();
+        // Wait for the movement steps to report progress until the required distance is covered
+        while (!isThreadFinished.get()) {
 
+            if (loopTrack){
 
-            // Monitor progress until the required distance is covered
-            while (!isThreadFinished.get()) {
+                if (participant.getTrack().isStart(participant.getLocationX(), participant.getLocationY())
+                        && (participant.getTotalDistance() - oldDistance) > 0
+                        && isTrackOrigin(participant.getDestination())
+                        && participant.getRegularCourierTournament() == 2){
+                    participant.watchProgress(participant.getTotalDistance());
+                }
 
-                if (participant.getAnimalAsNumber(participant.getCategory()) == 3){
+            }
 
-                    if (participant.getLocation().equals(new Point(0,0))
-                            && (participant.getTotalDistance() - oldDistance) > 0
-                            && participant.getDestination().equals(new Point(0,0))
-                            && participant.getCompetitionPanel().getRegularCourierTournament() == 2){
-                        neededDistance = participant.getTotalDistance() - oldDistance;
-                    }
+            // The target follows the track when the zoo is resized during the race
+            if (participant.getTotalDistance() >= participant.getProgressTarget()) {
+                participant.unwatchProgress();
 
+                if (loopTrack){
+                    participant.stopMoving();
                 }
 
-                if ((participant.getTotalDistance() - oldDistance) >= neededDistance) {
-
-                    if ((participant.getAnimalAsNumber(participant.getCategory())) == 3){
-                        if (participant.getTimer() != null) {
-                            participant.getTimer().stop();
-//                            participant.setTimer(null);
-                        }
-                        if(participant.getMoveTimer() != null) {
-                            participant.getMoveTimer().stop();
-//                            participant.setMoveTimer(null);
-                        }
-                    }
-//                        participant.setDone(0);
-
-                    // Notify that the movement is finished
-                    finishFlag.set(true);
-
-                    synchronized (finishFlag) {
-                        finishFlag.notify();  // Notify waiting threads
-                    }
-
-                    participant.notify();// Notify the participant
-
-                    try {
-                        sleep(SleepTime.getInstance().getTime());
-                    } catch (InterruptedException e) {
-                        System.out.println(e.getMessage());
-                    }
-                    participant.setInitialLocation();
-                    isThreadFinished.set(true);
-                    participant.setIsAvailable(true);
-                    participant.setNeedToMove(false);
+                // Notify that the movement is finished
+                signalFinish();
+
+                try {
+                    sleep(SleepTime.getInstance().getTime());
+                } catch (InterruptedException e) {
+                    // The race is over: only the pause before going back to the start is cut short
+                    Thread.currentThread().interrupt();
                 }
+                participant.setInitialLocation();
+                isThreadFinished.set(true);
+                participant.setIsAvailable(true);
+                participant.setNeedToMove(false);
             }
+            else {
+                try {
+                    participant.awaitProgress();
+                } catch (InterruptedException e) {
+                    abort();
+                    return;
+                }
+            }
+        }
 
+    }
+
+    /**
+     * Waits until the participant may start: the start signal of the tournament, or the baton of its courier group.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    private void awaitStart() throws InterruptedException {
+        if (baton != null) {
+            baton.awaitTurn(leg);
+            return;
         }
+        startSignal.await();
+    }
 
+    /**
+     * Reports that the participant covered its distance: passes the baton of its courier group,
+     * or counts down the finish signal, which releases the referee of the animal.
+     */
+    private void signalFinish() {
+        if (baton != null) {
+            baton.pass(leg);
+            return;
+        }
+        finishSignal.countDown();
+    }
+
+    /**
+     * Stops the participant and puts it back at its start, available for another tournament.
+     * Called when the thread is interrupted before the participant finished; the interrupt status is restored.
+     */
+    private void abort() {
+        participant.unwatchProgress();
+        participant.stopMoving();
+        participant.setInitialLocation();
+        participant.setIsAvailable(true);
+        participant.setNeedToMove(false);
+        Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Checks whether a point is the start of the participant's track (its top-left corner).
+     *
+     * @param point the point to check.
+     * @return true if the point is not null and is at the start of the track, false otherwise.
+     */
+    private boolean isTrackOrigin(Point point) {
+        return participant.getTrack().isStart(point);
     }
 
 
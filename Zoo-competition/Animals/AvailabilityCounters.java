@@ -0,0 +1,112 @@
+package Animals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Counts the available animals of a zoo, in total, by category, and by category and route.
+ * The counters are changed by the {@link AnimalRegistry} when an animal becomes available or unavailable,
+ * and are read without any lock: a count is a map lookup and an atomic read,
+ * however many animals the zoo has and however many tournament threads release their animals at the same time.
+ * <p>
+ * Each counter is exact on its own. A reader summing several counters while animals change
+ * may see some of the changes and not others, as with any count taken during a race.
+ * </p>
+ */
+public class AvailabilityCounters {
+
+    /**
+     * The number of available animals.
+     */
+    private final AtomicInteger total;
+
+    /**
+     * The number of available animals by category, indexed by the ordinal of the category.
+     */
+    private final AtomicIntegerArray byCategory;
+
+    /**
+     * The number of available animals by route, one map per category, indexed by the ordinal of the category.
+     */
+    private final List<ConcurrentMap<Integer, AtomicInteger>> byRoute;
+
+    /**
+     * Constructs AvailabilityCounters with every count at 0.
+     */
+    public AvailabilityCounters() {
+        this.total = new AtomicInteger(0);
+        this.byCategory = new AtomicIntegerArray(Category.values().length);
+        this.byRoute = new ArrayList<>(Category.values().length);
+        for (int i = 0; i < Category.values().length; ++i) {
+            byRoute.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Counts an animal that became available or unavailable.
+     *
+     * @param category The category of the animal.
+     * @param route    The competition route of the animal.
+     * @param delta    1 if the animal became available, -1 if it became unavailable.
+     */
+    void add(Category category, int route, int delta) {
+        byCategory.addAndGet(category.ordinal(), delta);
+        byRoute.get(category.ordinal()).computeIfAbsent(route, key -> new AtomicInteger()).addAndGet(delta);
+        total.addAndGet(delta);
+    }
+
+    /**
+     * Sets every count back to 0.
+     */
+    void clear() {
+        for (int i = 0; i < byRoute.size(); ++i) {
+            byCategory.set(i, 0);
+            byRoute.get(i).clear();
+        }
+        total.set(0);
+    }
+
+    /**
+     * Returns the number of available animals.
+     *
+     * @return The number of available animals of all categories.
+     */
+    public int get() {
+        return total.get();
+    }
+
+    /**
+     * Returns the number of available animals of some categories.
+     *
+     * @param categories The categories.
+     * @return The number of available animals of the categories.
+     */
+    public int get(Category... categories) {
+        int count = 0;
+        for (Category category : categories) {
+            count += byCategory.get(category.ordinal());
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of available animals of some categories on a route.
+     *
+     * @param route      The competition route.
+     * @param categories The categories.
+     * @return The number of available animals of the categories on the route.
+     */
+    public int getOnRoute(int route, Category... categories) {
+        int count = 0;
+        for (Category category : categories) {
+            AtomicInteger counter = byRoute.get(category.ordinal()).get(route);
+            if (counter != null)
+                count += counter.get();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,151 @@
+package Animals;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Represents the category of an animal, with what the competitions need to know about it:
+ * the competition type it races in, how many routes that competition offers, the shape of its track,
+ * and the orientations it has sprites for.
+ * <p>
+ * An animal resolves its category lazily, the first time it is needed, and keeps it, so the tournament threads
+ * and the panels compare enum constants instead of category names.
+ * </p>
+ */
+public enum Category {
+
+    /**
+     * Water animals, racing along the water routes.
+     */
+    WATER("Water", 1, 4, false, EnumSet.of(Orientation.EAST)),
+
+    /**
+     * Air animals, racing along the air routes.
+     */
+    AIR("Air", 2, 5, false, EnumSet.of(Orientation.EAST)),
+
+    /**
+     * Terrestrial animals, racing around the lanes along the edges of the zoo.
+     * The number of lanes is a default; the tournaments may open more.
+     */
+    TERRESTRIAL("Terrestrial", 3, 3, true, EnumSet.allOf(Orientation.class)),
+
+    /**
+     * Animals that both walk and swim, racing in the water competitions.
+     */
+    TERRESTRIAL_WATER("Terrestrial+Water", 1, 4, false, EnumSet.of(Orientation.EAST));
+
+    /**
+     * The name of the category, as shown to the user.
+     */
+    private final String name;
+
+    /**
+     * The competition type of the category: 1 for water, 2 for air, 3 for terrestrial.
+     */
+    private final int competitionType;
+
+    /**
+     * The number of routes of the competition of the category.
+     */
+    private final int routeCapacity;
+
+    /**
+     * Whether the track of the category is a loop around the zoo rather than a straight route.
+     */
+    private final boolean loopTrack;
+
+    /**
+     * The orientations the animals of the category have sprites for.
+     */
+    private final Set<Orientation> orientations;
+
+    /**
+     * Constructs a Category.
+     *
+     * @param name            The name of the category.
+     * @param competitionType The competition type of the category.
+     * @param routeCapacity   The number of routes of the competition.
+     * @param loopTrack       Whether the track is a loop around the zoo.
+     * @param orientations    The orientations with sprites.
+     */
+    Category(String name, int competitionType, int routeCapacity, boolean loopTrack, Set<Orientation> orientations) {
+        this.name = name;
+        this.competitionType = competitionType;
+        this.routeCapacity = routeCapacity;
+        this.loopTrack = loopTrack;
+        this.orientations = Collections.unmodifiableSet(orientations);
+    }
+
+    /**
+     * Finds the category with a name.
+     *
+     * @param name The name of the category, such as "Water" or "Terrestrial+Water".
+     * @return The category, or null if no category has that name.
+     */
+    public static Category fromName(String name) {
+        if (name == null)
+            return null;
+        for (Category category : values()) {
+            if (category.name.equals(name))
+                return category;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the name of the category.
+     *
+     * @return The name, as returned by {@link Animal#getCategory()}.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the competition type of the category.
+     *
+     * @return 1 for water, 2 for air, 3 for terrestrial.
+     */
+    public int getCompetitionType() {
+        return competitionType;
+    }
+
+    /**
+     * Gets the number of routes of the competition of the category.
+     *
+     * @return The number of routes, or the default number of lanes for terrestrial animals.
+     */
+    public int getRouteCapacity() {
+        return routeCapacity;
+    }
+
+    /**
+     * Returns whether the animals of the category race around a loop, turning at the corners of the zoo.
+     *
+     * @return true for a loop around the zoo, false for a straight route.
+     */
+    public boolean isLoopTrack() {
+        return loopTrack;
+    }
+
+    /**
+     * Gets the orientations the animals of the category have sprites for.
+     *
+     * @return The orientations, not modifiable.
+     */
+    public Set<Orientation> getOrientations() {
+        return orientations;
+    }
+
+    /**
+     * Returns the name of the category.
+     *
+     * @return The name of the category.
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,214 @@
+package Animals;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the energy account of an animal in fixed point, so fractions of energy consumed on every tick add up exactly
+ * instead of being truncated. The ledger holds the totals eaten and consumed, and the time the animal
+ * spent stopped for lack of energy.
+ * <p>
+ * Every total is a single atomic, so the ledger can be read in constant time from any thread without a lock,
+ * for example by the info table while the simulation thread is consuming energy.
+ * Energy is stored in thousandths. The balance is not stored: it is derived from the two totals read at one instant,
+ * so it is always exactly the energy eaten minus the energy consumed.
+ * </p>
+ */
+public class EnergyLedger {
+
+    /**
+     * Number of fixed-point units in one unit of energy.
+     */
+    public static final long SCALE = 1000;
+
+    /**
+     * The total energy eaten, in fixed-point units.
+     */
+    private final AtomicLong eaten;
+
+    /**
+     * The total energy consumed by moving, in fixed-point units.
+     */
+    private final AtomicLong consumed;
+
+    /**
+     * The total time in nanoseconds spent stopped for lack of energy, not counting the current stop.
+     */
+    private final AtomicLong idleNanos;
+
+    /**
+     * The {@link System#nanoTime()} stamp of the current stop for lack of energy, or 0 if the animal is not stopped.
+     */
+    private final AtomicLong idleSince;
+
+    /**
+     * Constructs an empty ledger.
+     */
+    public EnergyLedger() {
+        this.eaten = new AtomicLong(0);
+        this.consumed = new AtomicLong(0);
+        this.idleNanos = new AtomicLong(0);
+        this.idleSince = new AtomicLong(0);
+    }
+
+    /**
+     * Constructs a copy of a ledger.
+     *
+     * @param other The ledger to copy.
+     */
+    public EnergyLedger(EnergyLedger other) {
+        this.eaten = new AtomicLong(other.eaten.get());
+        this.consumed = new AtomicLong(other.consumed.get());
+        this.idleNanos = new AtomicLong(other.idleNanos.get());
+        this.idleSince = new AtomicLong(other.idleSince.get());
+    }
+
+    /**
+     * Adds eaten energy to the balance, unless the current energy, rounded down, would go over the maximum.
+     * The fraction left over from moving is kept, so the balance may end up a fraction over the maximum.
+     * Ends the current stop for lack of energy.
+     *
+     * @param energy    The energy eaten, positive.
+     * @param maxEnergy The maximum energy of the animal.
+     * @return true if the energy was added, false if it is not positive or the energy would go over the maximum.
+     */
+    public boolean feed(int energy, int maxEnergy) {
+        if (energy <= 0)
+            return false;
+        long amount = energy * SCALE;
+        long total;
+        do {
+            total = eaten.get();
+            // Energy consumed meanwhile only lowers the balance, so the check stays valid if the update succeeds
+            if ((total - consumed.get()) / SCALE + energy > maxEnergy)
+                return false;
+        } while (!eaten.compareAndSet(total, total + amount));
+        resume();
+        return true;
+    }
+
+    /**
+     * Takes energy from the balance, at most what is left.
+     *
+     * @param amount The energy to consume; fractions are kept to the fixed-point precision.
+     * @return true if the whole amount was taken, false if the balance ran out.
+     */
+    public boolean consume(double amount) {
+        long wanted = Math.round(amount * SCALE);
+        if (wanted <= 0)
+            return true;
+        long total;
+        long taken;
+        do {
+            total = consumed.get();
+            // Read after the consumed total, the eaten total is at least as large, so the balance is never overdrawn
+            taken = Math.min(wanted, eaten.get() - total);
+        } while (!consumed.compareAndSet(total, total + taken));
+        return taken == wanted;
+    }
+
+    /**
+     * Marks the start of a stop for lack of energy. A stop already started keeps its start time.
+     */
+    public void stall() {
+        idleSince.compareAndSet(0, Math.max(1, System.nanoTime()));
+    }
+
+    /**
+     * Ends the current stop for lack of energy, adding its length to the idle time.
+     */
+    public void resume() {
+        long since = idleSince.getAndSet(0);
+        if (since != 0)
+            idleNanos.addAndGet(System.nanoTime() - since);
+    }
+
+    /**
+     * Returns the current energy, rounded down.
+     *
+     * @return The current energy.
+     */
+    public int getCurrent() {
+        return (int) (getBalance() / SCALE);
+    }
+
+    /**
+     * Returns the exact current energy.
+     *
+     * @return The current energy, with its fraction.
+     */
+    public double getCurrentExact() {
+        return (double) getBalance() / SCALE;
+    }
+
+    /**
+     * Returns the total energy eaten.
+     *
+     * @return The energy eaten.
+     */
+    public int getEaten() {
+        return (int) (eaten.get() / SCALE);
+    }
+
+    /**
+     * Returns the total energy consumed by moving, rounded to the nearest unit.
+     *
+     * @return The energy consumed.
+     */
+    public int getConsumed() {
+        return (int) ((consumed.get() + SCALE / 2) / SCALE);
+    }
+
+    /**
+     * Returns the exact total energy consumed by moving.
+     *
+     * @return The energy consumed, with its fraction.
+     */
+    public double getConsumedExact() {
+        return (double) consumed.get() / SCALE;
+    }
+
+    /**
+     * Returns whether the animal is stopped for lack of energy.
+     *
+     * @return true if a stop was started and not ended, false otherwise.
+     */
+    public boolean isStalled() {
+        return idleSince.get() != 0;
+    }
+
+    /**
+     * Returns the total time spent stopped for lack of energy, including the current stop.
+     *
+     * @return The idle time in nanoseconds.
+     */
+    public long getIdleNanos() {
+        long since = idleSince.get();
+        return idleNanos.get() + (since == 0 ? 0 : System.nanoTime() - since);
+    }
+
+    /**
+     * Returns the balance: the energy eaten minus the energy consumed, both at the same instant.
+     * The totals only grow, so the consumed total is read again to check it did not change while the eaten total was read.
+     *
+     * @return The current energy, in fixed-point units.
+     */
+    private long getBalance() {
+        while (true) {
+            long used = consumed.get();
+            long total = eaten.get();
+            if (consumed.get() == used)
+                return total - used;
+        }
+    }
+
+    /**
+     * Returns a string representation of the ledger.
+     *
+     * @return A string with the current, eaten and consumed energy and the idle time.
+     */
+    @Override
+    public String toString() {
+        return "Energy: " + getCurrentExact() + ", eaten: " + getEaten() + ", consumed: " + getConsumedExact()
+                + ", idle: " + getIdleNanos() / 1_000_000.0 + " ms";
+    }
+}
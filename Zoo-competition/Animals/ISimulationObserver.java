@@ -0,0 +1,17 @@
+package Animals;
+
+/**
+ * An interface for objects that want to be notified after every tick of the {@link SimulationEngine}.
+ * Observers are optional: the simulation advances the same way whether or not anyone is watching.
+ */
+public interface ISimulationObserver {
+
+    /**
+     * Called on the simulation thread after all scheduled animals have been advanced by one tick.
+     * Implementations must return quickly, since the next tick waits for them.
+     *
+     * @param tick the number of the tick that has just completed.
+     */
+    void onTick(long tick);
+
+}
@@ -0,0 +1,293 @@
+package Animals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Singleton class that advances every moving animal in one fixed-timestep tick loop.
+ * The engine does not depend on Swing: it runs on its own daemon thread, so races can be simulated
+ * without a display, and the graphical panels only read the state it produces.
+ * Animals are advanced in the order they were scheduled, which keeps a run reproducible.
+ * Other threads never wait for a tick: work that must not overlap one is handed to the loop thread
+ * with {@link #runBetweenTicks(Runnable)}.
+ */
+public class SimulationEngine {
+
+    /**
+     * Default length of a tick in nanoseconds (1 ms, the delay the per-animal timers used to have).
+     */
+    public static final long DEFAULT_TICK_NANOS = 1_000_000L;
+
+    /**
+     * Maximum number of ticks the loop runs back to back to catch up after falling behind.
+     * Beyond that the schedule is reset instead of burning the CPU to recover lost time.
+     */
+    private static final int MAX_CATCH_UP_TICKS = 50;
+
+    /**
+     * Static instance of SimulationEngine for Singleton pattern.
+     */
+    private static SimulationEngine instance = null;
+
+    /**
+     * Animals advanced on every tick. Owned by the thread that runs the ticks.
+     */
+    private final List<Animal> active;
+
+    /**
+     * Animals scheduled since the last tick, waiting to join the active list.
+     */
+    private final ConcurrentLinkedQueue<Animal> pending;
+
+    /**
+     * Tasks handed to the loop thread, run after the current tick or as soon as the loop wakes up.
+     */
+    private final ConcurrentLinkedQueue<Runnable> tasks;
+
+    /**
+     * Observers notified after every tick.
+     */
+    private final List<ISimulationObserver> observers;
+
+    /**
+     * Length of a tick in nanoseconds.
+     */
+    private volatile long tickNanos;
+
+    /**
+     * Whether the loop waits for the tick length between ticks (true) or runs as fast as possible (false).
+     */
+    private volatile boolean paced;
+
+    /**
+     * Number of ticks completed since the engine was created.
+     */
+    private volatile long tickCount;
+
+    /**
+     * The thread running the tick loop, or null if it was not started yet.
+     */
+    private volatile Thread loopThread;
+
+    /**
+     * Private constructor to prevent external instantiation.
+     */
+    private SimulationEngine() {
+        active = new ArrayList<>();
+        pending = new ConcurrentLinkedQueue<>();
+        tasks = new ConcurrentLinkedQueue<>();
+        observers = new CopyOnWriteArrayList<>();
+        tickNanos = DEFAULT_TICK_NANOS;
+        paced = true;
+        tickCount = 0;
+        loopThread = null;
+    }
+
+    /**
+     * Gets the single instance of the SimulationEngine class.
+     *
+     * @return The single instance of the SimulationEngine class.
+     */
+    public static synchronized SimulationEngine getInstance() {
+        if (instance == null) {
+            instance = new SimulationEngine();
+        }
+        return instance;
+    }
+
+    /**
+     * Adds an animal to the tick loop. Scheduling an animal that is already scheduled has no effect.
+     * The loop thread is started on the first call.
+     *
+     * @param animal the animal to advance on every tick.
+     */
+    public void schedule(Animal animal) {
+        if (animal.markScheduled()) {
+            pending.add(animal);
+            startIfNeeded();
+            LockSupport.unpark(loopThread);
+        }
+    }
+
+    /**
+     * Advances every scheduled animal by one tick and notifies the observers.
+     * Animals that stopped moving during the tick are removed from the loop.
+     * This method is called by the loop thread, but may also be called directly to step a simulation by hand.
+     */
+    public synchronized void tick() {
+        Animal animal;
+        while ((animal = pending.poll()) != null) {
+            active.add(animal);
+        }
+
+        int kept = 0;
+        for (int i = 0; i < active.size(); ++i) {
+            animal = active.get(i);
+            animal.advance();
+            if (animal.isActive() || !animal.unmarkScheduled()) {
+                active.set(kept++, animal);
+            }
+        }
+        active.subList(kept, active.size()).clear();
+
+        long tick = ++tickCount;
+        for (ISimulationObserver observer : observers) {
+            observer.onTick(tick);
+        }
+    }
+
+    /**
+     * Hands a task to the loop thread, which runs it between two ticks: no animal is advanced while the task runs.
+     * The task runs after the current tick, or at once if the engine is idle; the caller does not wait for it.
+     * Tasks run in the order they were handed over. The loop thread is started if needed.
+     *
+     * @param task the task to run.
+     */
+    public void runBetweenTicks(Runnable task) {
+        tasks.add(task);
+        startIfNeeded();
+        LockSupport.unpark(loopThread);
+    }
+
+    /**
+     * Runs the tasks handed over by {@link #runBetweenTicks(Runnable)}, including the ones they hand over.
+     * An exception thrown by a task is printed and does not stop the loop.
+     */
+    private synchronized void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Adds an observer that will be notified after every tick.
+     *
+     * @param observer the observer to add.
+     */
+    public void addObserver(ISimulationObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * Removes an observer.
+     *
+     * @param observer the observer to remove.
+     */
+    public void removeObserver(ISimulationObserver observer) {
+        observers.remove(observer);
+    }
+
+    /**
+     * Sets the length of a tick.
+     *
+     * @param tickNanos the length of a tick in nanoseconds; must be greater than 0.
+     * @return true if the tick length was set, false otherwise.
+     */
+    public boolean setTickNanos(long tickNanos) {
+        if (tickNanos <= 0)
+            return false;
+        this.tickNanos = tickNanos;
+        return true;
+    }
+
+    /**
+     * Returns the length of a tick.
+     *
+     * @return the length of a tick in nanoseconds.
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Sets whether the loop keeps real time. Batch runs on servers without a display can turn pacing off
+     * to run ticks back to back.
+     *
+     * @param paced true to wait for the tick length between ticks, false to run as fast as possible.
+     */
+    public void setPaced(boolean paced) {
+        this.paced = paced;
+        LockSupport.unpark(loopThread);
+    }
+
+    /**
+     * Returns whether the loop keeps real time.
+     *
+     * @return true if the loop waits between ticks, false otherwise.
+     */
+    public boolean isPaced() {
+        return paced;
+    }
+
+    /**
+     * Returns the number of ticks completed so far.
+     *
+     * @return the tick count.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Starts the loop thread if it is not running yet.
+     */
+    private void startIfNeeded() {
+        if (loopThread != null)
+            return;
+        synchronized (observers) {
+            if (loopThread == null) {
+                Thread thread = new Thread(this::runLoop, "simulation-engine");
+                thread.setDaemon(true);
+                thread.start();
+                loopThread = thread;
+            }
+        }
+    }
+
+    /**
+     * Returns whether there is nothing to advance.
+     *
+     * @return true if no animal is scheduled, false otherwise.
+     */
+    private synchronized boolean isIdle() {
+        return active.isEmpty() && pending.isEmpty();
+    }
+
+    /**
+     * The tick loop. Runs ticks at a fixed rate while animals are scheduled and parks while there are none.
+     * The tasks handed to the engine run before every tick and whenever the loop wakes up.
+     */
+    private void runLoop() {
+        long nextTick = System.nanoTime();
+        while (true) {
+            runTasks();
+            if (isIdle()) {
+                LockSupport.park(this);
+                nextTick = System.nanoTime();
+                continue;
+            }
+
+            long now = System.nanoTime();
+            if (paced && now < nextTick) {
+                LockSupport.parkNanos(this, nextTick - now);
+                continue;
+            }
+
+            tick();
+
+            long period = tickNanos;
+            nextTick += period;
+            if (!paced || now - nextTick > MAX_CATCH_UP_TICKS * period) {
+                nextTick = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package Animals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes immutable snapshots of a set of animals for the panels that draw them.
+ * After a tick of the {@link SimulationEngine}, at most once per frame, the publisher copies the state of its animals
+ * into a new array of {@link AnimalSnapshot} and replaces the published array through a single volatile reference.
+ * Readers such as the event dispatch thread only read the published array: they never read an animal while it is
+ * advanced and never take a lock shared with the simulation.
+ * <p>
+ * An animal that did not change since the last snapshot keeps its snapshot, so idle animals cost no allocation.
+ * While the engine is idle no tick is published, so moves made outside the tick loop, such as placing the animals
+ * on their start points, are published by {@link #publishIfQuiet(long)}.
+ * Snapshots are only ever taken on the simulation thread, between two ticks. Other threads only ask for one:
+ * the request is handed to the engine with {@link SimulationEngine#runBetweenTicks(Runnable)}, and they do not wait for it.
+ * </p>
+ */
+public class SnapshotPublisher implements ISimulationObserver {
+
+    /**
+     * Default shortest time between two publications after a tick, in nanoseconds: one frame at 60 frames per second.
+     */
+    public static final long DEFAULT_FRAME_NANOS = 1_000_000_000L / 60;
+
+    /**
+     * The animals to publish, in the order of the snapshots. Used only on the simulation thread.
+     */
+    private Animal[] animals;
+
+    /**
+     * The animals to publish as they are added, copied into {@link #animals} at the next publication. Guarded by itself.
+     */
+    private final List<Animal> roster;
+
+    /**
+     * Whether animals were added since the last copy of the roster.
+     */
+    private volatile boolean rosterChanged;
+
+    /**
+     * The published snapshots.
+     */
+    private volatile Frame published;
+
+    /**
+     * The {@link System#nanoTime()} stamp of the last publication.
+     */
+    private volatile long publishedAt;
+
+    /**
+     * Shortest time between two publications after a tick, in nanoseconds.
+     */
+    private final long frameNanos;
+
+    /**
+     * Whether a publication was asked for and not taken by the simulation thread yet.
+     */
+    private final AtomicBoolean publishRequested;
+
+    /**
+     * Constructs a SnapshotPublisher with no animals, publishing at most once per frame at 60 frames per second,
+     * and registers it with the {@link SimulationEngine}.
+     */
+    public SnapshotPublisher() {
+        this(DEFAULT_FRAME_NANOS);
+    }
+
+    /**
+     * Constructs a SnapshotPublisher with no animals and registers it with the {@link SimulationEngine}.
+     *
+     * @param frameNanos Shortest time between two publications after a tick, in nanoseconds, usually the frame length of the panel.
+     */
+    public SnapshotPublisher(long frameNanos) {
+        this.animals = new Animal[0];
+        this.roster = new ArrayList<>();
+        this.rosterChanged = false;
+        this.published = new Frame(new AnimalSnapshot[0]);
+        this.publishedAt = System.nanoTime();
+        this.frameNanos = frameNanos;
+        this.publishRequested = new AtomicBoolean(false);
+        SimulationEngine.getInstance().addObserver(this);
+    }
+
+    /**
+     * Sets the animals to publish and asks for a publication after the current tick.
+     *
+     * @param animals The animals, or null for none. Null entries are skipped.
+     */
+    public void setAnimals(Animal[] animals) {
+        synchronized (roster) {
+            roster.clear();
+            if (animals != null) {
+                for (Animal animal : animals) {
+                    if (animal != null)
+                        roster.add(animal);
+                }
+            }
+            rosterChanged = true;
+        }
+        requestPublish();
+    }
+
+    /**
+     * Adds an animal to publish. The animal appears in the next publication;
+     * adding many animals one by one therefore costs no copy of the ones already added.
+     *
+     * @param animal The animal, ignored if null.
+     */
+    public void addAnimal(Animal animal) {
+        if (animal == null)
+            return;
+        synchronized (roster) {
+            roster.add(animal);
+            rosterChanged = true;
+        }
+    }
+
+    /**
+     * Publishes the animals after a tick if a frame has passed since the last publication or animals were added.
+     * Called on the simulation thread.
+     *
+     * @param tick The number of the tick that has just completed.
+     */
+    @Override
+    public void onTick(long tick) {
+        if (rosterChanged || System.nanoTime() - publishedAt >= frameNanos)
+            publish();
+    }
+
+    /**
+     * Asks the simulation thread for a publication between two ticks, unless one is already asked for.
+     */
+    private void requestPublish() {
+        if (publishRequested.compareAndSet(false, true)) {
+            SimulationEngine.getInstance().runBetweenTicks(() -> {
+                publishRequested.set(false);
+                publish();
+            });
+        }
+    }
+
+    /**
+     * Takes a snapshot of the animals and publishes it.
+     * Called on the simulation thread, between two ticks.
+     */
+    private void publish() {
+        if (rosterChanged) {
+            synchronized (roster) {
+                if (rosterChanged) {
+                    animals = roster.toArray(new Animal[0]);
+                    rosterChanged = false;
+                }
+            }
+        }
+        Animal[] current = animals;
+        AnimalSnapshot[] previous = published.snapshots;
+        AnimalSnapshot[] snapshots = new AnimalSnapshot[current.length];
+        for (int i = 0; i < current.length; ++i) {
+            AnimalSnapshot last = i < previous.length ? previous[i] : null;
+            snapshots[i] = last != null && last.getAnimal() == current[i] && last.isCurrent(current[i])
+                    ? last : new AnimalSnapshot(current[i]);
+        }
+
+        published = new Frame(snapshots);
+        publishedAt = System.nanoTime();
+    }
+
+    /**
+     * Asks for a publication if nothing was published for a while, which happens when the engine is idle,
+     * or if animals were added since the last publication.
+     * Called from the event dispatch thread or the render thread, which do not wait: the simulation thread takes
+     * the snapshot after the current tick, so it never reads an animal while it is advanced.
+     *
+     * @param quietNanos How long without a publication before asking for one, in nanoseconds.
+     * @return true if a publication was asked for, false otherwise.
+     */
+    public boolean publishIfQuiet(long quietNanos) {
+        if (!rosterChanged && System.nanoTime() - publishedAt < quietNanos)
+            return false;
+        requestPublish();
+        return true;
+    }
+
+    /**
+     * Returns the last published snapshots, in the order of the animals.
+     * The list never changes; a later publication replaces it with a new list.
+     *
+     * @return The snapshots of the animals.
+     */
+    public List<AnimalSnapshot> getSnapshot() {
+        return published.view;
+    }
+
+    /**
+     * Stops publishing after the ticks.
+     */
+    public void close() {
+        SimulationEngine.getInstance().removeObserver(this);
+    }
+
+    /**
+     * One publication: the snapshots and their read-only view.
+     */
+    private static final class Frame {
+
+        /**
+         * The snapshots, in the order of the animals.
+         */
+        private final AnimalSnapshot[] snapshots;
+
+        /**
+         * A read-only view of the snapshots, handed to the readers.
+         */
+        private final List<AnimalSnapshot> view;
+
+        /**
+         * Constructs a Frame.
+         *
+         * @param snapshots The snapshots, not modified afterwards.
+         */
+        private Frame(AnimalSnapshot[] snapshots) {
+            this.snapshots = snapshots;
+            this.view = Collections.unmodifiableList(Arrays.asList(snapshots));
+        }
+    }
+}
@@ -3,11 +3,9 @@ package Animals;
 import Mobility.Point;
 import Olympics.Medal;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
+import Graphics.SpriteAtlas;
+import Graphics.SpriteRegion;
 import Graphics.ZooPanel;
 
 
@@ -32,19 +30,29 @@ public abstract class TerrestrialAnimals extends Animal implements ICanWalk {
     private ICanWalk canWalk;
 
     /**
-     * Image for the terrestrial animal moving down.
+     * Sprite for the terrestrial animal moving down.
      */
-    private BufferedImage img2;
+    private SpriteRegion img2;
 
     /**
-     * Image for the terrestrial animal moving left.
+     * Sprite for the terrestrial animal moving left.
      */
-    private BufferedImage img3;
+    private SpriteRegion img3;
 
     /**
-     * Image for the terrestrial animal moving up.
+     * Sprite for the terrestrial animal moving up.
      */
-    private BufferedImage img4;
+    private SpriteRegion img4;
+
+    /**
+     * Distance in pixels between two neighbouring lanes.
+     */
+    public static final int LANE_WIDTH = 65;
+
+    /**
+     * The lane the animal races on. Lane 0 is the perimeter of the panel; every next lane is inset by {@link #LANE_WIDTH}.
+     */
+    private int lane;
 
 
     /**
@@ -151,6 +159,7 @@ public abstract class TerrestrialAnimals extends Animal implements ICanWalk {
 
     /**
      * Loads the images for the terrestrial animal based on the given image name.
+     * The images are shared by all animals of the same size through the {@link SpriteAtlas}.
      * The images represent different directions the animal can face:
      * <ul>
      *   <li>img1 - Right down</li>
@@ -163,37 +172,39 @@ public abstract class TerrestrialAnimals extends Animal implements ICanWalk {
      */
     public void loadImages(String imageName) {
 
-        try {
-            super.loadImages(imageName);
-            img2 = ImageIO.read(new File(PICTURE_PATH + imageName + "_down_left.png"));
-            img3 = ImageIO.read(new File(PICTURE_PATH + imageName + "_left_up.png"));
-            img4 = ImageIO.read(new File(PICTURE_PATH + imageName + "_up_right.png"));
-
-        } catch (IOException e) {
-            System.out.println("Cannot load images for " + imageName);
-        }
+        super.loadImages(imageName);
+        SpriteAtlas sprites = SpriteAtlas.getInstance();
+        img2 = sprites.getRegion(imageName, Orientation.SOUTH, getSize());
+        img3 = sprites.getRegion(imageName, Orientation.WEST, getSize());
+        img4 = sprites.getRegion(imageName, Orientation.NORTH, getSize());
     }
 
     /**
-     * Draws the animal on the given graphics context based on its orientation.
-     * The appropriate image is selected and drawn according to the current orientation of the animal.
+     * Draws the animal at a given location, with the image matching the given orientation.
      *
-     * @param g the graphics context to draw on
+     * @param g           the graphics context to draw on
+     * @param x           the x coordinate to draw at
+     * @param y           the y coordinate to draw at
+     * @param orientation the orientation to draw the animal with
      */
-    public void drawObject(Graphics g) {
-        if (getOrientation() == Orientation.EAST)
-            super.drawObject(g);
-
-        else if (getOrientation() == Orientation.SOUTH) {// animal move to the east side
-            g.drawImage(img2, super.getLocationX(), super.getLocationY(), getSize(), getSize(), getZooPanel());
+    @Override
+    public void drawObject(Graphics g, int x, int y, Orientation orientation) {
+        if (orientation == Orientation.EAST)
+            super.drawObject(g, x, y, orientation);
+
+        else if (orientation == Orientation.SOUTH) {// animal move to the east side
+            if (img2 != null)
+                img2.draw(g, x, y, getZooPanel());
         }
 
-        else if (getOrientation() == Orientation.WEST) {// animal move to the east side
-            g.drawImage(img3, super.getLocationX(), super.getLocationY(), getSize(), getSize(), getZooPanel());
+        else if (orientation == Orientation.WEST) {// animal move to the east side
+            if (img3 != null)
+                img3.draw(g, x, y, getZooPanel());
         }
 
-        else if (getOrientation() == Orientation.NORTH) {// animal move to the east side
-            g.drawImage(img4, super.getLocationX(), super.getLocationY(), getSize(), getSize(), getZooPanel());
+        else if (orientation == Orientation.NORTH) {// animal move to the east side
+            if (img4 != null)
+                img4.draw(g, x, y, getZooPanel());
         }
 
 
@@ -219,94 +230,131 @@ public abstract class TerrestrialAnimals extends Animal implements ICanWalk {
 
     /**
      * Sets the initial location of the terrestrial animal on the screen.
-     * The initial location is set to the top-left corner (0,0).
+     * The initial location is set to the top-left corner of its lane.
      */
     public void setInitialLocation(){
-        setLocation(new Point(0, 0));
+        setLocation(getTrack().getStart());
 
     }
 
     /**
      * Sets the destination for the terrestrial animal's movement.
-     * The destination is set to the top-left corner (0,0).
+     * The destination is set to the top-left corner of its lane.
      */
     public void setDestination() {
-        super.setDestination(new Point(0,0));
+        super.setDestination(getTrack().getStart());
     }
 
     /**
-     * Returns the length of the route for the terrestrial animal's movement.
-     * This length is based on the perimeter of the panel the animal is moving in.
+     * Returns the track of the terrestrial animal in a given track geometry: the loop around the lane it races on.
      *
-     * @return the length of the route, adjusted for screen size.
+     * @param geometry the track geometry
+     * @return the track of the lane of the animal
      */
-    public int getLenOfRoute(){
+    @Override
+    Track getTrack(TrackGeometry geometry){
+        return geometry.getTrack(getCategoryKind(), lane);
+    }
 
-        return (getZooPanel().getWidth()-(65))*2 + (getZooPanel().getHeight()- 65)*2;
+    /**
+     * Returns the lane the animal races on.
+     *
+     * @return the lane, starting at 0 for the perimeter of the panel
+     */
+    public int getLane() {
+        return lane;
+    }
+
+    /**
+     * Sets the lane the animal races on. Call {@link #setInitialLocation()} to move the animal to the start of the lane.
+     *
+     * @param lane the lane, starting at 0 for the perimeter of the panel
+     * @return true if the lane was set, false if it is negative
+     */
+    public boolean setLane(int lane) {
+        if (lane < 0)
+            return false;
+        this.lane = lane;
+        return true;
+    }
+
+    /**
+     * Gets the corner of the lane at the end of the side the animal faces.
+     * @return the vertex of the track of the lane where the side along the orientation of the animal ends
+     */
+    private Point getSideEnd(){
+        Track track = getTrack();
+        Orientation orientation = getOrientation();
+        for (int i = 0; i < track.getSegmentCount(); ++i) {
+            if (track.getSegmentOrientation(i) == orientation)
+                return track.getVertex(i + 1);
+        }
+        return track.getEnd();
     }
 
     /**
-     * Starts the movement of the terrestrial animal.
+     * Starts the movement of the terrestrial animal toward the end of the side of its lane it faces.
      * The movement is based on the current orientation and the type of the tournament.
      */
     public void startMoving() {
 
-        int type = getCompetitionPanel().getRegularCourierTournament();
+        int type = getRegularCourierTournament();
+        Point end = getSideEnd();
 
         switch (type) {
             case 1:
                 if (getOrientation() == Orientation.EAST){
-                    setDestination(new Point(getZooPanel().getWidth() - 65, getLocationY()));
+                    setDestination(new Point(end.getX(), getLocationY()));
                     super.startMoving();
                 }
                 else if (getOrientation() == Orientation.SOUTH){
-                    setDestination(new Point(getLocationX(), getZooPanel().getHeight() - 65));
+                    setDestination(new Point(getLocationX(), end.getY()));
                     super.startMoving();
                 }
                 else if (getOrientation() == Orientation.WEST){
-                    setDestination(new Point(0, getLocationY()));
+                    setDestination(new Point(end.getX(), getLocationY()));
                     super.startMoving();
                 }
                 else if (getOrientation() == Orientation.NORTH){
 
-                    setDestination(new Point(getLocationX(), 0));
+                    setDestination(new Point(getLocationX(), end.getY()));
                     super.startMoving();
                     setDone(4);
                 }
                 break;
             case 2:
                 if (getOrientation() == Orientation.EAST){
-                    if (getDestination().getX() < (getZooPanel().getWidth()-65) && getDestination().getY() == getLocationY()) {
+                    if (getDestination().getX() < end.getX() && getDestination().getY() == getLocationY()) {
                         super.startMoving(new Point(getDestination().getX(), getLocationY()));
                     }
                     else {
-                        super.startMoving(new Point(getZooPanel().getWidth() - 65, getLocationY()));
+                        super.startMoving(new Point(end.getX(), getLocationY()));
                     }
                 }
                 else if (getOrientation() == Orientation.SOUTH){
-                    if (getDestination().getY() < getZooPanel().getHeight() - 65 && getDestination().getX() == getLocationX()) {
+                    if (getDestination().getY() < end.getY() && getDestination().getX() == getLocationX()) {
                         super.startMoving(new Point(getLocationX(), getDestination().getY()));
 
                     }
                     else {
-                        super.startMoving(new Point(getLocationX(), getZooPanel().getHeight() - 65));
+                        super.startMoving(new Point(getLocationX(), end.getY()));
                     }
                 }
                 else if (getOrientation() == Orientation.WEST){
-                    if (getDestination().getX() > 0) {
+                    if (getDestination().getX() > end.getX()) {
                         super.startMoving(new Point(getDestination().getX(), getLocationY()));
                     }
                     else {
-                        super.startMoving(new Point(0, getLocationY()));
+                        super.startMoving(new Point(end.getX(), getLocationY()));
                     }
                 }
                 else if (getOrientation() == Orientation.NORTH){
-                    if (getDestination().getY() > 0) {
+                    if (getDestination().getY() > end.getY()) {
                         super.startMoving(new Point(getLocationX(), getDestination().getY()));
 
                     }
                     else {
-                        super.startMoving(new Point(getDestination().getX(),0));
+                        super.startMoving(new Point(getDestination().getX(), end.getY()));
                     }
                 }
 
@@ -0,0 +1,252 @@
+package Animals;
+
+import Mobility.Point;
+
+import java.util.Arrays;
+
+/**
+ * The track of a route or a lane, as a polyline of straight segments.
+ * The length along the track from its start to every vertex is computed once, so the point at a distance along the track
+ * is found by a binary search over the vertices instead of by walking the sides one by one.
+ * <p>
+ * A position on a track also has a coordinate that does not depend on the size of the zoo: the index of its segment
+ * plus how far along the segment it is, from 0 to 1. A position keeps its coordinate when the track is rebuilt for
+ * another size, so an animal stays on the same side of its lane, at the same part of that side.
+ * </p>
+ * A track is immutable. A closed track, such as a terrestrial lane, ends at the vertex it starts from.
+ */
+public class Track {
+
+    /**
+     * The X coordinates of the vertices, in the order the animals race through them.
+     */
+    private final int[] xs;
+
+    /**
+     * The Y coordinates of the vertices, in the order the animals race through them.
+     */
+    private final int[] ys;
+
+    /**
+     * The length along the track from its start to each vertex.
+     */
+    private final double[] distances;
+
+    /**
+     * Constructs a Track through the given vertices.
+     *
+     * @param xs The X coordinates of the vertices, at least two.
+     * @param ys The Y coordinates of the vertices, as many as X coordinates.
+     * @throws IllegalArgumentException If there are fewer than two vertices or the coordinates do not match.
+     */
+    Track(int[] xs, int[] ys) {
+        if (xs.length < 2 || xs.length != ys.length)
+            throw new IllegalArgumentException("A track needs at least two vertices");
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        this.distances = new double[xs.length];
+        for (int i = 1; i < xs.length; ++i) {
+            distances[i] = distances[i - 1] + Math.hypot(xs[i] - xs[i - 1], ys[i] - ys[i - 1]);
+        }
+    }
+
+    /**
+     * Returns the length of the track.
+     *
+     * @return The length from the start to the end of the track.
+     */
+    public double getLength() {
+        return distances[distances.length - 1];
+    }
+
+    /**
+     * Returns the start of the track.
+     *
+     * @return The first vertex.
+     */
+    public Point getStart() {
+        return new Point(xs[0], ys[0]);
+    }
+
+    /**
+     * Returns the end of the track.
+     *
+     * @return The last vertex, which is the start for a closed track.
+     */
+    public Point getEnd() {
+        return new Point(xs[xs.length - 1], ys[ys.length - 1]);
+    }
+
+    /**
+     * Returns a vertex of the track.
+     *
+     * @param index The index of the vertex, 0 for the start.
+     * @return The vertex.
+     */
+    public Point getVertex(int index) {
+        return new Point(xs[index], ys[index]);
+    }
+
+    /**
+     * Checks whether a point is the start of the track.
+     *
+     * @param point The point, may be null.
+     * @return true if the point is the first vertex, false otherwise.
+     */
+    public boolean isStart(Point point) {
+        return point != null && isStart(point.getX(), point.getY());
+    }
+
+    /**
+     * Checks whether a position is the start of the track, without creating a point.
+     *
+     * @param x The X coordinate of the position.
+     * @param y The Y coordinate of the position.
+     * @return true if the position is the first vertex, false otherwise.
+     */
+    public boolean isStart(int x, int y) {
+        return x == xs[0] && y == ys[0];
+    }
+
+    /**
+     * Returns the point at a distance along the track.
+     *
+     * @param distance The distance from the start, clamped to the track.
+     * @return The point, rounded to whole coordinates.
+     */
+    public Point getPoint(double distance) {
+        int segment = getSegment(distance);
+        double length = distances[segment + 1] - distances[segment];
+        double along = length <= 0 ? 0 : (clamp(distance) - distances[segment]) / length;
+        return new Point((int) Math.round(xs[segment] + (xs[segment + 1] - xs[segment]) * along),
+                (int) Math.round(ys[segment] + (ys[segment + 1] - ys[segment]) * along));
+    }
+
+    /**
+     * Returns the orientation of an animal at a distance along the track.
+     * At a vertex, this is the orientation of the segment leaving it.
+     *
+     * @param distance The distance from the start, clamped to the track.
+     * @return The orientation of the segment at the distance.
+     */
+    public Orientation getOrientation(double distance) {
+        return getSegmentOrientation(getSegment(distance));
+    }
+
+    /**
+     * Returns the distance along the track of the point of the track nearest to a position.
+     * The segments are searched one by one; a route has one and a lane four.
+     *
+     * @param x The X coordinate of the position.
+     * @param y The Y coordinate of the position.
+     * @return The distance from the start of the nearest point of the track.
+     */
+    public double getDistance(int x, int y) {
+        double best = Double.MAX_VALUE;
+        double distance = 0;
+        for (int i = 0; i + 1 < xs.length; ++i) {
+            double dx = xs[i + 1] - xs[i];
+            double dy = ys[i + 1] - ys[i];
+            double squared = dx * dx + dy * dy;
+            double along = squared <= 0 ? 0 : ((x - xs[i]) * dx + (y - ys[i]) * dy) / squared;
+            along = Math.max(0, Math.min(1, along));
+            double px = xs[i] + dx * along - x;
+            double py = ys[i] + dy * along - y;
+            double gap = px * px + py * py;
+            if (gap < best) {
+                best = gap;
+                distance = distances[i] + along * Math.sqrt(squared);
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Returns the coordinate of a distance along the track: the index of the segment plus the part of the segment covered.
+     *
+     * @param distance The distance from the start, clamped to the track.
+     * @return The coordinate, from 0 at the start to the number of segments at the end.
+     */
+    public double toCoordinate(double distance) {
+        double clamped = clamp(distance);
+        if (clamped >= getLength())
+            return getSegmentCount();
+        int segment = getSegment(clamped);
+        double length = distances[segment + 1] - distances[segment];
+        return segment + (length <= 0 ? 0 : (clamped - distances[segment]) / length);
+    }
+
+    /**
+     * Returns the distance along the track of a coordinate.
+     *
+     * @param coordinate The coordinate, clamped between 0 and the number of segments.
+     * @return The distance from the start.
+     */
+    public double getDistanceAtCoordinate(double coordinate) {
+        double clamped = Math.max(0, Math.min(coordinate, getSegmentCount()));
+        int segment = Math.min((int) clamped, getSegmentCount() - 1);
+        return distances[segment] + (clamped - segment) * (distances[segment + 1] - distances[segment]);
+    }
+
+    /**
+     * Finds the corner of the track at a position, that is the vertex where an animal turns.
+     * The inner vertices are checked first, then the start.
+     *
+     * @param x The X coordinate of the position.
+     * @param y The Y coordinate of the position.
+     * @return The index of the vertex, 0 for the start, or -1 if the position is not a vertex.
+     */
+    public int getCorner(int x, int y) {
+        for (int i = 1; i + 1 < xs.length; ++i) {
+            if (xs[i] == x && ys[i] == y)
+                return i;
+        }
+        return xs[0] == x && ys[0] == y ? 0 : -1;
+    }
+
+    /**
+     * Returns the orientation of the segment leaving a vertex.
+     *
+     * @param segment The index of the vertex the segment leaves.
+     * @return The orientation of the segment, {@link Orientation#EAST} for a segment of no length.
+     */
+    public Orientation getSegmentOrientation(int segment) {
+        int dx = xs[segment + 1] - xs[segment];
+        int dy = ys[segment + 1] - ys[segment];
+        if (Math.abs(dx) >= Math.abs(dy))
+            return dx < 0 ? Orientation.WEST : Orientation.EAST;
+        return dy < 0 ? Orientation.NORTH : Orientation.SOUTH;
+    }
+
+    /**
+     * Returns the number of segments of the track.
+     *
+     * @return The number of vertices minus one.
+     */
+    public int getSegmentCount() {
+        return xs.length - 1;
+    }
+
+    /**
+     * Returns the segment at a distance along the track. At a vertex, this is the segment leaving it.
+     *
+     * @param distance The distance from the start, clamped to the track.
+     * @return The index of the vertex the segment leaves.
+     */
+    private int getSegment(double distance) {
+        int found = Arrays.binarySearch(distances, clamp(distance));
+        int vertex = found >= 0 ? found : -found - 2;
+        // The end of the track belongs to the last segment
+        return Math.max(0, Math.min(vertex, xs.length - 2));
+    }
+
+    /**
+     * Clamps a distance to the track.
+     *
+     * @param distance The distance from the start.
+     * @return The distance, between 0 and the length of the track.
+     */
+    private double clamp(double distance) {
+        return Math.max(0, Math.min(distance, getLength()));
+    }
+}
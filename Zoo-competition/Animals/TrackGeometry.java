@@ -0,0 +1,193 @@
+package Animals;
+
+/**
+ * The tracks of a zoo of a given size: the water routes, the air routes and the terrestrial lanes.
+ * The size is given explicitly, so tournaments can race without a panel; a panel builds its geometry from its own size.
+ * Every track is built once, when the geometry is created, instead of being worked out again from the size of the panel
+ * whenever an animal starts, moves, turns or finishes. A panel keeps one geometry and replaces it when it is resized;
+ * the animals are then moved from the tracks of the old geometry to the same {@link Track track coordinates} on the new one,
+ * so a race goes on where it was after a resize.
+ */
+public class TrackGeometry {
+
+    /**
+     * The tracks of a zoo with no area, used by animals that have neither a panel nor tracks of their own yet.
+     */
+    public static final TrackGeometry EMPTY = new TrackGeometry(0, 0);
+
+    /**
+     * The size of an animal sprite, kept clear at the right and bottom edges of the zoo.
+     */
+    private static final int SPRITE_SIZE = 65;
+
+    /**
+     * The part of the width of the zoo left as a bank at each end of the water routes.
+     */
+    private static final double WATER_BANK = 0.085;
+
+    /**
+     * The width of the zoo.
+     */
+    private final int width;
+
+    /**
+     * The height of the zoo.
+     */
+    private final int height;
+
+    /**
+     * The water routes, route 1 first.
+     */
+    private final Track[] waterRoutes;
+
+    /**
+     * The air routes, route 1 first.
+     */
+    private final Track[] airRoutes;
+
+    /**
+     * The terrestrial lanes that fit in the zoo, lane 0 first.
+     */
+    private final Track[] lanes;
+
+    /**
+     * Constructs the geometry of a zoo and builds all its tracks.
+     *
+     * @param width  The width of the zoo.
+     * @param height The height of the zoo.
+     */
+    public TrackGeometry(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.waterRoutes = new Track[Category.WATER.getRouteCapacity()];
+        for (int i = 0; i < waterRoutes.length; ++i) {
+            waterRoutes[i] = createWaterRoute(i + 1);
+        }
+        this.airRoutes = new Track[Category.AIR.getRouteCapacity()];
+        for (int i = 0; i < airRoutes.length; ++i) {
+            airRoutes[i] = createAirRoute(i + 1);
+        }
+        this.lanes = new Track[getLaneCount(width, height)];
+        for (int i = 0; i < lanes.length; ++i) {
+            lanes[i] = createLane(i);
+        }
+    }
+
+    /**
+     * Checks whether the geometry was built for a zoo of the given size.
+     *
+     * @param width  The width of the zoo.
+     * @param height The height of the zoo.
+     * @return true if the geometry has that size, false if it must be built again.
+     */
+    public boolean hasSize(int width, int height) {
+        return this.width == width && this.height == height;
+    }
+
+    /**
+     * Checks whether the zoo has no area, as before the panel is laid out.
+     *
+     * @return true if the width or the height is not positive, false otherwise.
+     */
+    public boolean isEmpty() {
+        return width <= 0 || height <= 0;
+    }
+
+    /**
+     * Returns the number of terrestrial lanes that fit in the zoo.
+     *
+     * @return The number of lanes whose track is not empty, at least 1.
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Moves animals from their tracks in a previous geometry to the same coordinates on their tracks in this one,
+     * with their destinations and the distance left in their race.
+     * Animals racing on tracks of their own rather than on the previous geometry are left where they are.
+     * Must be called between two ticks of the {@link SimulationEngine}.
+     *
+     * @param previous The geometry the animals raced on.
+     * @param animals  The animals to move, or null for none.
+     */
+    public void reproject(TrackGeometry previous, Animal[] animals) {
+        if (animals == null)
+            return;
+        for (Animal animal : animals) {
+            if (animal.getCategoryKind() != null && animal.getTrackGeometry() == previous)
+                animal.reproject(animal.getTrack(previous), animal.getTrack(this));
+        }
+    }
+
+    /**
+     * Returns the track of a category.
+     * A route or lane outside the ones built in advance is built on demand.
+     *
+     * @param category The category racing on the track.
+     * @param route    The competition route, starting at 1, or the lane for terrestrial animals, starting at 0.
+     * @return The track.
+     * @throws IllegalArgumentException If the category is null.
+     */
+    public Track getTrack(Category category, int route) {
+        if (category == null)
+            throw new IllegalArgumentException("Unknown category");
+        switch (category) {
+            case AIR:
+                return route >= 1 && route <= airRoutes.length ? airRoutes[route - 1] : createAirRoute(route);
+            case TERRESTRIAL:
+                return route >= 0 && route < lanes.length ? lanes[route] : createLane(route);
+            default:
+                return route >= 1 && route <= waterRoutes.length ? waterRoutes[route - 1] : createWaterRoute(route);
+        }
+    }
+
+    /**
+     * Returns the number of terrestrial lanes that fit in a zoo of the given size.
+     *
+     * @param width  The width of the zoo.
+     * @param height The height of the zoo.
+     * @return The number of lanes whose track is not empty, at least 1.
+     */
+    private static int getLaneCount(int width, int height) {
+        int shortest = Math.min(width, height) - SPRITE_SIZE;
+        return Math.max(1, (shortest - 1) / (2 * TerrestrialAnimals.LANE_WIDTH) + 1);
+    }
+
+    /**
+     * Builds a water route: a straight line between the two banks, at the height of the route.
+     *
+     * @param route The route, starting at 1.
+     * @return The track of the route.
+     */
+    private Track createWaterRoute(int route) {
+        int bank = (int) (width * WATER_BANK);
+        int y = (height / 9) * (2 * route - 1);
+        return new Track(new int[]{bank, width - SPRITE_SIZE - bank}, new int[]{y, y});
+    }
+
+    /**
+     * Builds an air route: a straight line across the zoo, at the height of the route.
+     *
+     * @param route The route, starting at 1.
+     * @return The track of the route.
+     */
+    private Track createAirRoute(int route) {
+        int y = 2 * (height / 9) * (route - 1);
+        return new Track(new int[]{0, width - SPRITE_SIZE}, new int[]{y, y});
+    }
+
+    /**
+     * Builds a terrestrial lane: a loop from the top-left corner of the lane, clockwise around the zoo.
+     *
+     * @param lane The lane, starting at 0 for the perimeter of the zoo.
+     * @return The track of the lane.
+     */
+    private Track createLane(int lane) {
+        int left = lane * TerrestrialAnimals.LANE_WIDTH;
+        int top = lane * TerrestrialAnimals.LANE_WIDTH;
+        int right = width - SPRITE_SIZE - lane * TerrestrialAnimals.LANE_WIDTH;
+        int bottom = height - SPRITE_SIZE - lane * TerrestrialAnimals.LANE_WIDTH;
+        return new Track(new int[]{left, right, right, left, left}, new int[]{top, top, bottom, bottom, top});
+    }
+}
@@ -215,53 +215,44 @@ public abstract class WaterAnimal extends Animal {
 
     /**
      * Calculates the distance from the current location of the water animal
-     * to the destination point, which is based on the width of the ZooPanel.
-     * The destination is adjusted by subtracting 65 and a percentage of the ZooPanel's width.
+     * to the destination point, the end of its route.
      *
      * @return the calculated distance to the destination point
      */
     @Override
     public double getDistance() {
-        return super.calcDistancePoint(new Point((getZooPanel().getWidth() - 65 - (int)(getZooPanel().getWidth()*0.085)), getLocationY()));
+        return super.calcDistancePoint(new Point(getTrack().getEnd().getX(), getLocationY()));
     }
 
     /**
-     * Sets the initial location of the water animal based on the ZooPanel's dimensions.
+     * Sets the initial location of the water animal at the start of its route.
      * The initial X-coordinate is a percentage of the panel's width.
-     * The Y-coordinate is calculated based on the competition route.
+     * The Y-coordinate is the height of the competition route.
      */
     public void setInitialLocation(){
-        super.setLocation(new Point((int)(getZooPanel().getWidth()*0.085), (getZooPanel().getHeight()/9)* (2*getCompetitionRoute() - 1)));
+        super.setLocation(getTrack().getStart());
 
     }
 
     /**
-     * Sets the destination point for the water animal based on the ZooPanel's width.
-     * The destination X-coordinate is calculated by subtracting 65 and a percentage of the panel's width.
+     * Sets the destination point for the water animal at the end of its route.
+     * The destination X-coordinate is the end of the route, a percentage of the panel's width before its right edge.
      * The Y-coordinate remains the same as the current location.
      */
     public void setDestination(){
 
-        super.setDestination(new Point((getZooPanel().getWidth() - 65 - (int)(getZooPanel().getWidth()*0.085)), getLocationY()));
+        super.setDestination(new Point(getTrack().getEnd().getX(), getLocationY()));
 
     }
 
     /**
-     * Returns the length of the route for the water animal.
-     * @return the length of the route
-     */
-    public int getLenOfRoute(){
-        return (int) ((getZooPanel().getWidth() - 65 - (int)(getZooPanel().getWidth()*0.085)) - (getZooPanel().getWidth()*0.085));
-    }
-
-    /**
-     * Returns the initial X-coordinate for the water animal based on the ZooPanel's width.
+     * Returns the initial X-coordinate for the water animal: the start of its route.
      * The value is a percentage of the panel's width.
      *
      * @return the initial X-coordinate
      */
     public int getXinit(){
-        return (int)(getZooPanel().getWidth()*0.085);
+        return getTrack().getStart().getX();
     }
 
 
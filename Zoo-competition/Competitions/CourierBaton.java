@@ -0,0 +1,165 @@
+package Competitions;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Phaser;
+
+/**
+ * The baton of one group in a courier tournament. It hands the race from each runner to the next one,
+ * records every leg in the {@link RaceMetrics} of the race, and completes a future when the last runner finishes.
+ * <p>
+ * The hand-offs are the phases of a {@link Phaser} with a single party: phase {@code i} means runner {@code i} holds the baton,
+ * and passing the baton advances the phase. A runner that starts waiting after the baton was passed to it returns at once,
+ * so a hand-off can never be missed. The first runner waits for the start signal of the tournament instead.
+ * </p>
+ */
+public class CourierBaton {
+
+    /**
+     * The start signal shared by all the groups of the tournament.
+     */
+    private final CountDownLatch startSignal;
+
+    /**
+     * The hand-offs: the phase is the leg of the runner holding the baton.
+     */
+    private final Phaser handOffs;
+
+    /**
+     * The metrics of the race, where the legs of the group are recorded.
+     */
+    private final RaceMetrics metrics;
+
+    /**
+     * The group of the baton in the race, starting at 0.
+     */
+    private final int group;
+
+    /**
+     * The number of legs of the group.
+     */
+    private final int legs;
+
+    /**
+     * Completed with the splits when the last runner finishes.
+     */
+    private final CompletableFuture<long[]> completion;
+
+    /**
+     * Constructs a CourierBaton.
+     *
+     * @param startSignal The start signal of the tournament, released by the {@link TournamentThread}.
+     * @param metrics     The metrics of the race, holding the runners of the group.
+     * @param group       The group of the baton in the race, starting at 0.
+     */
+    public CourierBaton(CountDownLatch startSignal, RaceMetrics metrics, int group) {
+        this.startSignal = startSignal;
+        this.metrics = metrics;
+        this.group = group;
+        this.legs = metrics.getLegCount(group);
+        this.handOffs = new Phaser(1);
+        this.completion = new CompletableFuture<>();
+    }
+
+    /**
+     * Waits until the runner of a leg holds the baton: the start of the tournament for the first leg,
+     * the hand-off of the previous runner for the others.
+     *
+     * @param leg The leg of the runner, starting at 0.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void awaitTurn(int leg) throws InterruptedException {
+        checkLeg(leg);
+        if (leg == 0) {
+            startSignal.await();
+        } else {
+            int phase = handOffs.getPhase();
+            while (phase >= 0 && phase < leg) {
+                phase = handOffs.awaitAdvanceInterruptibly(phase);
+            }
+        }
+        metrics.startLeg(group, leg);
+    }
+
+    /**
+     * Passes the baton from the runner of a leg to the next runner, and records the end of the leg.
+     * The last runner completes the {@link #getCompletion() completion} of the group instead.
+     *
+     * @param leg The leg of the runner passing the baton, starting at 0.
+     * @throws IllegalStateException If the runner of the leg does not hold the baton.
+     */
+    public void pass(int leg) {
+        checkLeg(leg);
+        if (handOffs.getPhase() != leg)
+            throw new IllegalStateException("Leg " + (leg + 1) + " does not hold the baton");
+
+        metrics.endLeg(group, leg);
+        handOffs.arrive();
+        if (leg == legs - 1)
+            completion.complete(getSplits());
+    }
+
+    /**
+     * Returns the number of legs of the group.
+     *
+     * @return The number of runners.
+     */
+    public int getLegs() {
+        return legs;
+    }
+
+    /**
+     * Returns the leg of the runner holding the baton.
+     *
+     * @return The leg, starting at 0, or the number of legs once the last runner finished.
+     */
+    public int getCurrentLeg() {
+        return Math.min(handOffs.getPhase(), legs);
+    }
+
+    /**
+     * Returns the time a leg took.
+     *
+     * @param leg The leg, starting at 0.
+     * @return The time of the leg in nanoseconds, or 0 if the leg is not over.
+     */
+    public long getSplitNanos(int leg) {
+        LegSplit split = metrics.getSplit(group, checkLeg(leg));
+        return split.isFinished() ? split.getDurationNanos() : 0;
+    }
+
+    /**
+     * Returns the times of all the legs.
+     *
+     * @return The time of each leg in nanoseconds, 0 for the legs that are not over.
+     */
+    public long[] getSplits() {
+        long[] splits = new long[legs];
+        for (int i = 0; i < legs; ++i) {
+            splits[i] = getSplitNanos(i);
+        }
+        return splits;
+    }
+
+    /**
+     * Returns a future completed with the times of all the legs when the last runner finishes.
+     *
+     * @return The completion of the group.
+     */
+    public CompletableFuture<long[]> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Checks that a leg exists.
+     *
+     * @param leg The leg, starting at 0.
+     * @return The leg.
+     * @throws IllegalArgumentException If the leg does not exist.
+     */
+    private int checkLeg(int leg) {
+        if (leg < 0 || leg >= legs)
+            throw new IllegalArgumentException("Unknown leg: " + (leg + 1));
+        return leg;
+    }
+}
@@ -3,17 +3,29 @@ package Competitions;
 import Animals.Animal;
 import Animals.AnimalThread;
 import Animals.Orientation;
-import Mobility.Point;
+import Animals.Track;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The CourierTournament class represents a tournament in which animals compete in a courier-style race.
  * Each group of animals is assigned a route, and the race begins with each animal moving along its route.
  * The tournament manages the setup and coordination of animal threads for the race.
+ * The runners of a group hand the race to each other with a {@link CourierBaton}, which also records the time of every leg.
  */
 public class CourierTournament extends Tournament {
 
+    /**
+     * The batons of the groups, in group order.
+     */
+    private CourierBaton[] batons;
+
+    /**
+     * The split times, distances and energy of every leg of the race.
+     */
+    private RaceMetrics metrics;
+
     /**
      * Constructs a CourierTournament with the given animals.
      *
@@ -30,14 +42,18 @@ public class CourierTournament extends Tournament {
      * @param animals A 2D array of Animal objects, where each row represents a group of animals.
      */
     public void setUp(Animal[][] animals) {
-        AtomicBoolean startFlag = new AtomicBoolean(false); // startFlag of all groups in CourierTournament
+        CountDownLatch startSignal = new CountDownLatch(1); // Start signal of all groups in CourierTournament
         int numberOfGroups = animals.length;
-        int type = getAnimalAsNumber(animals[0][0].getCategory());
+        int type = animals[0][0].getCompetitionType();
+
+        setRegularCourier(animals, 2);
 
         Scores groupsScores = new Scores();
-        AtomicBoolean[] tournamentRouts = new AtomicBoolean[5];
-        for (int i = 0; i < 5; i++) {
-            tournamentRouts[i] = new AtomicBoolean(false);
+        batons = new CourierBaton[numberOfGroups];
+        metrics = new RaceMetrics(animals); // Records every leg of every group
+        AtomicBoolean[] tournamentRouts = createRouteFlags(type);
+        if (type == 3) {
+            tournamentRouts[assignLane(animals)].set(true);
         }
 
         for (int k = 0; k < numberOfGroups; ++k) {
@@ -48,71 +64,69 @@ public class CourierTournament extends Tournament {
             }
 
             int numberOfAnimalsMembers = animals[k].length; // Saving number of animal members in a group
-            AtomicBoolean[] flags = new AtomicBoolean[numberOfAnimalsMembers]; // Creating flags for animals in group
-            for (int i = 0; i < numberOfAnimalsMembers; ++i)
-                flags[i] = new AtomicBoolean(false);
+            CourierBaton baton = new CourierBaton(startSignal, metrics, k); // Hands the race from runner to runner
 
             int neededDistance = animals[k][0].getLenOfRoute() / numberOfAnimalsMembers;
 
             animals[k][0].setOrientation(Orientation.EAST);
 
             // Start the first animal in the group
-            AnimalThread animalThreadFirst = new AnimalThread(animals[k][0], neededDistance, startFlag, flags[0]);
-            animals[k][0].setIsAvailable(false);
-            Thread threadFirst = new Thread(animalThreadFirst);
-            threadFirst.start();
+            AnimalThread animalThreadFirst = new AnimalThread(animals[k][0], neededDistance, baton, 0);
+            forkRacer(animals[k][0], animalThreadFirst);
 
             setLocation(animals[k], neededDistance);
 
             for (int i = 1; i < numberOfAnimalsMembers; i++) {
                 animals[k][i - 1].setDestination(animals[k][i].getLocation());
-                animals[k][i].setIsAvailable(false);
 
-                AnimalThread animalThread = new AnimalThread(animals[k][i], neededDistance, flags[i - 1], flags[i]);
-                Thread thread = new Thread(animalThread);
-                thread.start();
+                AnimalThread animalThread = new AnimalThread(animals[k][i], neededDistance, baton, i);
+                forkRacer(animals[k][i], animalThread);
             }
 
             animals[k][numberOfAnimalsMembers - 1].setDestination();
 
-            // Create and start a referee for the group
-            Referee finishReferee = new Referee("group " + (k + 1), flags[numberOfAnimalsMembers - 1], groupsScores);
-            Thread finishThread = new Thread(finishReferee);
-            finishThread.start();
+            // The group scores when its last runner finishes; no thread waits for it
+            Referee finishReferee = new Referee("group " + (k + 1), groupsScores);
+            baton.getCompletion().thenRun(finishReferee::record);
+            batons[k] = baton;
         }
 
         // Set up and start the tournament thread
-        super.setTournamentThread(new TournamentThread(groupsScores, startFlag, numberOfGroups, type, 2, tournamentRouts));
-        Thread courierTournamentThread = new Thread(getTournamentThread());
-        courierTournamentThread.start();
+        startTournamentThread(animals, new TournamentThread(groupsScores, startSignal, numberOfGroups, type, 2, tournamentRouts));
+    }
+
+    /**
+     * Returns the baton of a group, with the time of each leg of the group.
+     *
+     * @param group The group, numbered from 0.
+     * @return The baton of the group.
+     */
+    public CourierBaton getBaton(int group) {
+        return batons[group];
     }
 
     /**
-     * Sets the initial location and orientation of each animal in the group based on its distance from the start.
+     * Returns the metrics of the race: the split time, distance, energy and pace of every leg.
+     * They can be read while the race runs.
+     *
+     * @return The metrics of the race.
+     */
+    public RaceMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the initial location and orientation of each animal in the group based on its distance from the start of its track.
      *
      * @param animals        An array of Animal objects in the group.
      * @param neededDistance The distance each animal should travel within the group.
      */
     private void setLocation(Animal[] animals, int neededDistance) {
         for (int i = 1; i < animals.length; i++) {
-            if (i * neededDistance < (animals[i].getZooPanel().getWidth()-65)) {
-                animals[i].setLocation(new Point(i * neededDistance + animals[i].getXinit(), animals[i].getLocation().getY()));
-                animals[i].setOrientation(Orientation.EAST);
-            } else if (i * neededDistance < ((animals[i].getZooPanel().getWidth()-65) +  (animals[i].getZooPanel().getHeight()-65))) {
-                animals[i].setLocation(new Point((animals[i].getZooPanel().getWidth()-65), i * neededDistance - (animals[i].getZooPanel().getWidth()-65)));
-                animals[i].setOrientation(Orientation.SOUTH);
-
-            } else if (i * neededDistance < (2 * (animals[i].getZooPanel().getWidth()-65) +  (animals[i].getZooPanel().getHeight()-65))) {
-                animals[i].setLocation(new Point((animals[i].getZooPanel().getWidth()-65) - (i * neededDistance - ((animals[i].getZooPanel().getWidth()-65) +  (animals[i].getZooPanel().getHeight()-65))),  (animals[i].getZooPanel().getHeight()-65)));
-                animals[i].setOrientation(Orientation.WEST);
-
-            } else {
-                animals[i].setLocation(new Point(0, (animals[i].getZooPanel().getHeight()-65)- (i * neededDistance - (2 * (animals[i].getZooPanel().getWidth()-65) + (animals[i].getZooPanel().getHeight()-65)))));
-                animals[i].setOrientation(Orientation.NORTH);
-
-            }
-
-
+            Track track = animals[i].getTrack();
+            int distance = i * neededDistance;
+            animals[i].setLocation(track.getPoint(distance));
+            animals[i].setOrientation(track.getOrientation(distance));
         }
     }
 
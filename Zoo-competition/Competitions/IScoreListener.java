@@ -0,0 +1,16 @@
+package Competitions;
+
+/**
+ * An interface for objects that want to be notified of every finish recorded in a {@link Scores} object.
+ */
+public interface IScoreListener {
+
+    /**
+     * Called on the thread that recorded the finish, once per name.
+     * Implementations must return quickly, since the referee waits for them.
+     *
+     * @param score the entry of the finish that has just been recorded.
+     */
+    void onScore(ScoreEntry score);
+
+}
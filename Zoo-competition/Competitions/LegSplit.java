@@ -0,0 +1,183 @@
+package Competitions;
+
+/**
+ * The LegSplit class is an immutable record of one leg of a race: who ran it, when, how far,
+ * and how much energy it cost. A split of a leg that is still running holds the values measured so far.
+ */
+public class LegSplit {
+
+    /**
+     * The group of the leg, starting at 0.
+     */
+    private final int group;
+
+    /**
+     * The leg within the group, starting at 0.
+     */
+    private final int leg;
+
+    /**
+     * The name of the animal that ran the leg.
+     */
+    private final String runner;
+
+    /**
+     * The {@link System#nanoTime()} stamp of the start of the leg, or 0 if the leg did not start.
+     */
+    private final long startNanos;
+
+    /**
+     * The {@link System#nanoTime()} stamp of the end of the leg, or 0 if the leg is not over.
+     */
+    private final long endNanos;
+
+    /**
+     * The time of the leg in nanoseconds, so far if the leg is not over.
+     */
+    private final long durationNanos;
+
+    /**
+     * The distance covered in the leg.
+     */
+    private final double distance;
+
+    /**
+     * The energy consumed in the leg.
+     */
+    private final double energyUsed;
+
+    /**
+     * Constructs a LegSplit with the given values.
+     *
+     * @param group         The group of the leg, starting at 0.
+     * @param leg           The leg within the group, starting at 0.
+     * @param runner        The name of the animal that ran the leg.
+     * @param startNanos    The start stamp of the leg, or 0 if the leg did not start.
+     * @param endNanos      The end stamp of the leg, or 0 if the leg is not over.
+     * @param durationNanos The time of the leg in nanoseconds.
+     * @param distance      The distance covered in the leg.
+     * @param energyUsed    The energy consumed in the leg.
+     */
+    public LegSplit(int group, int leg, String runner, long startNanos, long endNanos, long durationNanos,
+                    double distance, double energyUsed) {
+        this.group = group;
+        this.leg = leg;
+        this.runner = runner;
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+        this.durationNanos = durationNanos;
+        this.distance = distance;
+        this.energyUsed = energyUsed;
+    }
+
+    /**
+     * Returns the group of the leg.
+     *
+     * @return The group, starting at 0.
+     */
+    public int getGroup() {
+        return group;
+    }
+
+    /**
+     * Returns the leg within the group.
+     *
+     * @return The leg, starting at 0.
+     */
+    public int getLeg() {
+        return leg;
+    }
+
+    /**
+     * Returns the name of the animal that ran the leg.
+     *
+     * @return The name of the runner.
+     */
+    public String getRunner() {
+        return runner;
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} stamp of the start of the leg.
+     *
+     * @return The start stamp, or 0 if the leg did not start.
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} stamp of the end of the leg.
+     *
+     * @return The end stamp, or 0 if the leg is not over.
+     */
+    public long getEndNanos() {
+        return endNanos;
+    }
+
+    /**
+     * Returns whether the leg started.
+     *
+     * @return true if the runner received the baton, false otherwise.
+     */
+    public boolean isStarted() {
+        return startNanos != 0;
+    }
+
+    /**
+     * Returns whether the leg is over.
+     *
+     * @return true if the runner passed the baton or finished, false otherwise.
+     */
+    public boolean isFinished() {
+        return endNanos != 0;
+    }
+
+    /**
+     * Returns the time of the leg.
+     *
+     * @return The time in nanoseconds, so far if the leg is not over.
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Returns the distance covered in the leg.
+     *
+     * @return The distance, so far if the leg is not over.
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Returns the energy consumed in the leg.
+     *
+     * @return The energy used, so far if the leg is not over.
+     */
+    public double getEnergyUsed() {
+        return energyUsed;
+    }
+
+    /**
+     * Returns the average speed of the leg, the pace so far if the leg is not over.
+     *
+     * @return The distance covered per second, or 0 if no time passed yet.
+     */
+    public double getAverageSpeed() {
+        return durationNanos <= 0 ? 0 : distance * 1e9 / durationNanos;
+    }
+
+    /**
+     * Returns a string representation of the split.
+     *
+     * @return A string with the group, the leg, the runner, the time, the distance, the energy and the average speed.
+     */
+    @Override
+    public String toString() {
+        return String.format("group %d leg %d %s: %.1f ms, distance %.1f, energy %.1f, speed %.1f/s%s",
+                group + 1, leg + 1, runner, durationNanos / 1_000_000.0, distance, energyUsed, getAverageSpeed(),
+                isFinished() ? "" : isStarted() ? " (running)" : " (waiting)");
+    }
+}
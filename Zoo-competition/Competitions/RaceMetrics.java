@@ -0,0 +1,283 @@
+package Competitions;
+
+import Animals.Animal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the legs of a race: when each leg started and ended, the distance its runner covered and the energy it used.
+ * The values are kept in one flat array of longs with a fixed slot per leg, so recording a leg allocates nothing
+ * and takes no lock. Each slot is written by the thread of its runner only, and the start and end stamps are written last,
+ * so a reader that sees a stamp also sees the values recorded with it.
+ * <p>
+ * The metrics can be read while the race runs: a leg in progress reports its time, distance and pace so far.
+ * When every leg is over, the {@link #getCompletion() completion} of the metrics is completed, and
+ * {@link #summarize()} gives the totals of each group. With the system property {@value #PRINT_PROPERTY} set to true,
+ * the summary is printed at the end of every race.
+ * </p>
+ */
+public class RaceMetrics {
+
+    /**
+     * System property printing the summary of every race when it ends.
+     */
+    public static final String PRINT_PROPERTY = "zoo.race.metrics";
+
+    /**
+     * Offset of the start stamp in a slot.
+     */
+    private static final int START = 0;
+
+    /**
+     * Offset of the end stamp in a slot.
+     */
+    private static final int END = 1;
+
+    /**
+     * Offset of the runner's total distance at the start, as double bits.
+     */
+    private static final int START_DISTANCE = 2;
+
+    /**
+     * Offset of the runner's total distance at the end, as double bits.
+     */
+    private static final int END_DISTANCE = 3;
+
+    /**
+     * Offset of the runner's consumed energy at the start, as double bits.
+     */
+    private static final int START_ENERGY = 4;
+
+    /**
+     * Offset of the runner's consumed energy at the end, as double bits.
+     */
+    private static final int END_ENERGY = 5;
+
+    /**
+     * Number of values in a slot.
+     */
+    private static final int SLOT_SIZE = 6;
+
+    /**
+     * The runners of each group, in leg order.
+     */
+    private final Animal[][] runners;
+
+    /**
+     * The index of the first slot of each group.
+     */
+    private final int[] firstSlot;
+
+    /**
+     * The values of all the legs, {@value #SLOT_SIZE} per leg.
+     */
+    private final AtomicLongArray values;
+
+    /**
+     * Number of legs that are not over yet.
+     */
+    private final AtomicInteger legsLeft;
+
+    /**
+     * Completed with the metrics when every leg is over.
+     */
+    private final CompletableFuture<RaceMetrics> completion;
+
+    /**
+     * Constructs the metrics of a race.
+     *
+     * @param groups The runners of each group, one row per group, in leg order.
+     * @throws IllegalArgumentException If there is no group or a group has no runner.
+     */
+    public RaceMetrics(Animal[][] groups) {
+        if (groups == null || groups.length == 0)
+            throw new IllegalArgumentException("A race needs at least one group");
+        this.runners = new Animal[groups.length][];
+        this.firstSlot = new int[groups.length];
+        int slots = 0;
+        for (int group = 0; group < groups.length; ++group) {
+            if (groups[group] == null || groups[group].length == 0)
+                throw new IllegalArgumentException("A group needs at least one runner");
+            runners[group] = groups[group].clone();
+            firstSlot[group] = slots;
+            slots += groups[group].length;
+        }
+        this.values = new AtomicLongArray(slots * SLOT_SIZE);
+        this.legsLeft = new AtomicInteger(slots);
+        this.completion = new CompletableFuture<>();
+        if (Boolean.getBoolean(PRINT_PROPERTY))
+            completion.thenAccept(metrics -> System.out.print(metrics.summarize()));
+    }
+
+    /**
+     * Records the start of a leg. Called by the thread of the runner when it receives the baton.
+     * Starting a leg twice keeps the first start.
+     *
+     * @param group The group, starting at 0.
+     * @param leg   The leg within the group, starting at 0.
+     */
+    public void startLeg(int group, int leg) {
+        int base = slot(group, leg);
+        if (values.get(base + START) != 0)
+            return;
+        Animal runner = runners[group][leg];
+        values.set(base + START_DISTANCE, Double.doubleToRawLongBits(runner.getTotalDistance()));
+        values.set(base + START_ENERGY, Double.doubleToRawLongBits(runner.getEnergyLedger().getConsumedExact()));
+        values.set(base + START, stamp());
+    }
+
+    /**
+     * Records the end of a leg. Called by the thread of the runner when it passes the baton or finishes.
+     * Ending a leg twice keeps the first end.
+     *
+     * @param group The group, starting at 0.
+     * @param leg   The leg within the group, starting at 0.
+     */
+    public void endLeg(int group, int leg) {
+        int base = slot(group, leg);
+        if (values.get(base + END) != 0)
+            return;
+        startLeg(group, leg);
+        Animal runner = runners[group][leg];
+        values.set(base + END_DISTANCE, Double.doubleToRawLongBits(runner.getTotalDistance()));
+        values.set(base + END_ENERGY, Double.doubleToRawLongBits(runner.getEnergyLedger().getConsumedExact()));
+        values.set(base + END, stamp());
+        if (legsLeft.decrementAndGet() == 0)
+            completion.complete(this);
+    }
+
+    /**
+     * Returns the split of a leg: its values if it is over, its values so far if it is running.
+     *
+     * @param group The group, starting at 0.
+     * @param leg   The leg within the group, starting at 0.
+     * @return The split of the leg.
+     */
+    public LegSplit getSplit(int group, int leg) {
+        int base = slot(group, leg);
+        Animal runner = runners[group][leg];
+        long end = values.get(base + END);
+        long start = values.get(base + START);
+        if (start == 0)
+            return new LegSplit(group, leg, runner.getAnimalName(), 0, 0, 0, 0, 0);
+
+        double startDistance = Double.longBitsToDouble(values.get(base + START_DISTANCE));
+        double startEnergy = Double.longBitsToDouble(values.get(base + START_ENERGY));
+        if (end != 0) {
+            double distance = Double.longBitsToDouble(values.get(base + END_DISTANCE)) - startDistance;
+            double energy = Double.longBitsToDouble(values.get(base + END_ENERGY)) - startEnergy;
+            return new LegSplit(group, leg, runner.getAnimalName(), start, end, end - start, distance, energy);
+        }
+
+        // The leg is running: measure the pace so far from the runner itself
+        double distance = runner.getTotalDistance() - startDistance;
+        double energy = runner.getEnergyLedger().getConsumedExact() - startEnergy;
+        return new LegSplit(group, leg, runner.getAnimalName(), start, 0, System.nanoTime() - start, distance, energy);
+    }
+
+    /**
+     * Returns the splits of all the legs of a group.
+     *
+     * @param group The group, starting at 0.
+     * @return The splits, in leg order.
+     */
+    public List<LegSplit> getSplits(int group) {
+        List<LegSplit> splits = new ArrayList<>(runners[group].length);
+        for (int leg = 0; leg < runners[group].length; ++leg) {
+            splits.add(getSplit(group, leg));
+        }
+        return splits;
+    }
+
+    /**
+     * Returns the number of groups of the race.
+     *
+     * @return The number of groups.
+     */
+    public int getGroupCount() {
+        return runners.length;
+    }
+
+    /**
+     * Returns the number of legs of a group.
+     *
+     * @param group The group, starting at 0.
+     * @return The number of runners of the group.
+     */
+    public int getLegCount(int group) {
+        return runners[group].length;
+    }
+
+    /**
+     * Returns whether every leg of the race is over.
+     *
+     * @return true if all the runners finished their leg, false otherwise.
+     */
+    public boolean isComplete() {
+        return legsLeft.get() == 0;
+    }
+
+    /**
+     * Returns a future completed with these metrics when every leg of the race is over.
+     *
+     * @return The completion of the metrics.
+     */
+    public CompletableFuture<RaceMetrics> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * Summarizes the race: for each group, the total time, distance and energy and the average speed, then every leg.
+     * Legs still running are summarized with their values so far.
+     *
+     * @return The summary, one line per group and per leg.
+     */
+    public String summarize() {
+        StringBuilder summary = new StringBuilder();
+        for (int group = 0; group < runners.length; ++group) {
+            List<LegSplit> splits = getSplits(group);
+            long nanos = 0;
+            double distance = 0;
+            double energy = 0;
+            for (LegSplit split : splits) {
+                nanos += split.getDurationNanos();
+                distance += split.getDistance();
+                energy += split.getEnergyUsed();
+            }
+            summary.append(String.format("group %d: %.1f ms, distance %.1f, energy %.1f, speed %.1f/s%n",
+                    group + 1, nanos / 1_000_000.0, distance, energy, nanos <= 0 ? 0 : distance * 1e9 / nanos));
+            for (LegSplit split : splits) {
+                summary.append("  ").append(split).append(System.lineSeparator());
+            }
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Returns the index of the first value of a leg.
+     *
+     * @param group The group, starting at 0.
+     * @param leg   The leg within the group, starting at 0.
+     * @return The index of the slot in {@link #values}.
+     * @throws IllegalArgumentException If the group or the leg does not exist.
+     */
+    private int slot(int group, int leg) {
+        if (group < 0 || group >= runners.length || leg < 0 || leg >= runners[group].length)
+            throw new IllegalArgumentException("Unknown leg " + (leg + 1) + " of group " + (group + 1));
+        return (firstSlot[group] + leg) * SLOT_SIZE;
+    }
+
+    /**
+     * Returns the current {@link System#nanoTime()} stamp, never 0, since 0 marks a stamp not recorded yet.
+     *
+     * @return The stamp.
+     */
+    private static long stamp() {
+        long now = System.nanoTime();
+        return now == 0 ? 1 : now;
+    }
+}
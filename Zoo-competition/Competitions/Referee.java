@@ -1,12 +1,12 @@
 package Competitions;
 
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.CountDownLatch;
 
 import static java.lang.Thread.currentThread;
 
 /**
  * The Referee class represents a referee in a tournament who monitors the completion of a race.
- * The referee waits until the finishFlag is set to true, indicating that a group has finished the race,
+ * The referee waits until the finish signal is released, indicating that a group has finished the race,
  * and then adds the group's name to the scores.
  */
 public class Referee implements Runnable {
@@ -22,26 +22,26 @@ public class Referee implements Runnable {
     private Scores scores;
 
     /**
-     * An AtomicBoolean that signals the completion of the group's race.
-     * When this flag is set to true, the referee records the group's result in the Scores object.
+     * A latch that signals the completion of the group's race.
+     * When it is released, the referee records the group's result in the Scores object.
      */
-    private AtomicBoolean finishFlag;
+    private CountDownLatch finishSignal;
 
     /**
-     * Constructs a Referee with the given name, finish flag, and scores.
+     * Constructs a Referee with the given name, finish signal, and scores.
      *
-     * @param name       The name of the group or participant the referee is monitoring.
-     * @param finishFlag An AtomicBoolean flag that indicates when the race has finished.
-     * @param scores     The Scores object where the name will be added when the race is complete.
+     * @param name         The name of the group or participant the referee is monitoring.
+     * @param finishSignal A latch released when the race has finished.
+     * @param scores       The Scores object where the name will be added when the race is complete.
      */
-    public Referee(String name, AtomicBoolean finishFlag, Scores scores) {
+    public Referee(String name, CountDownLatch finishSignal, Scores scores) {
         this.name = name;
         this.scores = scores;
-        this.finishFlag = finishFlag;
+        this.finishSignal = finishSignal;
     }
 
     /**
-     * Constructs a Referee with the given name and scores, without a finish flag.
+     * Constructs a Referee with the given name and scores, without a finish signal.
      *
      * @param name   The name of the group or participant the referee is monitoring.
      * @param scores The Scores object where the name will be added when the race is complete.
@@ -52,25 +52,29 @@ public class Referee implements Runnable {
     }
 
     /**
-     * The run method of the Referee class. It waits for the finishFlag to be set to true,
+     * The run method of the Referee class. It waits for the finish signal to be released,
      * indicating that the race is complete. Once the race is complete, the referee adds
-     * the group's name to the scores and notifies any waiting threads that the race is finished.
+     * the group's name to the scores, which notifies the listeners of the scores.
+     * If the thread is interrupted because the tournament was aborted, the referee returns without a score.
      */
     @Override
     public void run() {
-        synchronized (finishFlag) {
-            while (!finishFlag.get()) {
-                try {
-                    finishFlag.wait();
-                } catch (InterruptedException e) {
-                    System.out.println(e.getMessage());
-                }
-            }
-            scores.add(name);
-            synchronized (scores) {
-                scores.notifyAll(); // Notify all waiting threads that the score has been updated
-            }
+        try {
+            finishSignal.await();
+        } catch (InterruptedException e) {
+            currentThread().interrupt();
+            return;
         }
+        record();
+    }
+
+    /**
+     * Adds the name of the group to the scores; the {@link IScoreListener listeners} of the scores are notified.
+     * Called by {@link #run()} once the finish signal is released, or directly when the end of the race is reported
+     * another way, such as the completion of a {@link CourierBaton}.
+     */
+    public void record() {
+        scores.add(name);
     }
 
 }
@@ -3,6 +3,7 @@ package Competitions;
 import Animals.Animal;
 import Animals.AnimalThread;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -22,14 +23,14 @@ public class RegularTournament extends Tournament {
     }
 
     /**
-     * Sets up the tournament by initializing and starting the threads for each animal's race and its corresponding referee.
+     * Sets up the tournament by initializing and starting the tasks for each animal's race and its corresponding referee.
      * Each animal races individually on its assigned route, and a referee monitors the completion of the race.
      *
      * @param animals A 2D array where each row contains a single animal participating in the tournament.
      */
     public void setUp(Animal[][] animals) {
         // Start flag for all groups in RegularTournament
-        AtomicBoolean startFlag = new AtomicBoolean(false);
+        CountDownLatch startSignal = new CountDownLatch(1);
 
         // Empty scores for all groups - every tournament has one Scores object
         Scores scores = new Scores();
@@ -39,20 +40,22 @@ public class RegularTournament extends Tournament {
             return;
         }
 
-        // Initialize route flags for up to 5 routes
-        AtomicBoolean[] tournamentRoutes = new AtomicBoolean[5];
-        for (int i = 0; i < 5; i++) {
-            tournamentRoutes[i] = new AtomicBoolean(false);
-        }
+        // Tell the animals they race in a regular tournament
+        setRegularCourier(animals, 1);
 
         // Determine the type of animals in the tournament based on the category of the first animal
-        int type = getAnimalAsNumber(animals[0][0].getCategory());
+        int type = animals[0][0].getCompetitionType();
+
+        // Initialize route flags; terrestrial tournaments race on the least loaded lane
+        AtomicBoolean[] tournamentRoutes = createRouteFlags(type);
+        if (type == 3) {
+            tournamentRoutes[assignLane(animals)].set(true);
+        }
 
         // Set up and start threads for each animal and its corresponding referee
         for (Animal[] animalGroup : animals) {
             Animal animal = animalGroup[0];
             animal.setDestination();
-            animal.setIsAvailable(false);
 
             if (type != 3) {
                 int route = animal.getCompetitionRoute();
@@ -60,22 +63,18 @@ public class RegularTournament extends Tournament {
             }
 
             // Finish flag for each animal
-            AtomicBoolean finishFlag = new AtomicBoolean(false);
+            CountDownLatch finishSignal = new CountDownLatch(1);
 
-            // Create and start a thread for the animal's race
-            AnimalThread animalThread = new AnimalThread(animal, animal.getLenOfRoute(), startFlag, finishFlag);
-            Thread animalTournamentThread = new Thread(animalThread);
-            animalTournamentThread.start();
+            // Run the animal's race in the scope of the tournament
+            AnimalThread animalThread = new AnimalThread(animal, animal.getLenOfRoute(), startSignal, finishSignal);
+            forkRacer(animal, animalThread);
 
-            // Create and start a thread for the referee monitoring the animal's race
-            Referee referee = new Referee(animal.getAnimalName(), finishFlag, scores);
-            Thread refereeTournamentThread = new Thread(referee);
-            refereeTournamentThread.start();
+            // Run the referee monitoring the animal's race in the scope of the tournament
+            Referee referee = new Referee(animal.getAnimalName(), finishSignal, scores);
+            fork(referee, "referee of " + animal.getAnimalName());
         }
 
-        // Create and start the tournament thread
-        super.setTournamentThread(new TournamentThread(scores, startFlag, animals.length, type, 1, tournamentRoutes));
-        Thread regularTournamentThread = new Thread(getTournamentThread());
-        regularTournamentThread.start();
+        // Create the tournament thread and run it in the scope of the tournament
+        startTournamentThread(animals, new TournamentThread(scores, startSignal, animals.length, type, 1, tournamentRoutes));
     }
 }
@@ -0,0 +1,490 @@
+package Competitions;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Class that hands out the routes of a competition area to the tournaments that race on them.
+ * A tournament acquires all of its routes at once, so two tournaments can never hold part of each other's routes
+ * and deadlock. Waiting tournaments are served in arrival order: a route freed by a tournament is handed to the
+ * first waiter that needs it, and only the waiters whose routes all became free are woken up.
+ * The manager also records how long the tournaments waited for each route.
+ */
+public class RouteLockManager {
+
+    /**
+     * A tournament waiting for its routes.
+     */
+    private static class Waiter {
+
+        /**
+         * The routes the tournament waits for, sorted and without duplicates.
+         */
+        private final int[] routes;
+
+        /**
+         * The condition the tournament waits on.
+         */
+        private final Condition granted;
+
+        /**
+         * The {@link System#nanoTime()} stamp of the start of the wait.
+         */
+        private final long startNanos;
+
+        /**
+         * Whether the routes were handed to the tournament.
+         */
+        private boolean acquired;
+
+        /**
+         * Constructs a Waiter.
+         *
+         * @param routes  The routes the tournament waits for.
+         * @param granted The condition the tournament waits on.
+         */
+        private Waiter(int[] routes, Condition granted) {
+            this.routes = routes;
+            this.granted = granted;
+            this.startNanos = System.nanoTime();
+            this.acquired = false;
+        }
+    }
+
+    /**
+     * The name of the competition area, used in reports.
+     */
+    private final String name;
+
+    /**
+     * Fair lock guarding the state of the routes.
+     */
+    private final ReentrantLock lock;
+
+    /**
+     * Whether each route is held by a tournament.
+     */
+    private final boolean[] held;
+
+    /**
+     * The tournaments waiting for their routes, in arrival order.
+     */
+    private final ArrayDeque<Waiter> waiters;
+
+    /**
+     * Number of tournaments that reserved each route and did not ask for it yet.
+     */
+    private final int[] reservations;
+
+    /**
+     * Number of times each route was acquired.
+     */
+    private final long[] acquisitions;
+
+    /**
+     * Number of times a tournament had to wait for each route.
+     */
+    private final long[] contended;
+
+    /**
+     * Total time in nanoseconds the tournaments waited for each route.
+     */
+    private final long[] totalWaitNanos;
+
+    /**
+     * Longest time in nanoseconds a tournament waited for each route.
+     */
+    private final long[] maxWaitNanos;
+
+    /**
+     * Constructs a RouteLockManager with all routes free.
+     *
+     * @param name       The name of the competition area, used in reports.
+     * @param routeCount The number of routes.
+     * @throws IllegalArgumentException If the number of routes is not positive.
+     */
+    public RouteLockManager(String name, int routeCount) {
+        if (routeCount <= 0)
+            throw new IllegalArgumentException("Number of routes must be positive: " + routeCount);
+        this.name = name;
+        this.lock = new ReentrantLock(true);
+        this.held = new boolean[routeCount];
+        this.waiters = new ArrayDeque<>();
+        this.reservations = new int[routeCount];
+        this.acquisitions = new long[routeCount];
+        this.contended = new long[routeCount];
+        this.totalWaitNanos = new long[routeCount];
+        this.maxWaitNanos = new long[routeCount];
+    }
+
+    /**
+     * Acquires all the given routes at once, waiting until they are all free.
+     *
+     * @param routes The routes to acquire, numbered from 0.
+     * @throws InterruptedException     If the thread is interrupted while waiting; no route is held then.
+     * @throws IllegalArgumentException If a route does not exist.
+     */
+    public void acquire(int[] routes) throws InterruptedException {
+        int[] sorted = normalize(routes);
+        lock.lock();
+        try {
+            Waiter waiter = enqueue(sorted);
+            try {
+                while (!waiter.acquired) {
+                    waiter.granted.await();
+                }
+            } catch (InterruptedException e) {
+                abandon(waiter);
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Acquires all the given routes at once, waiting until they are all free.
+     * Interrupts do not stop the wait; the interrupt status is kept.
+     *
+     * @param routes The routes to acquire, numbered from 0.
+     * @throws IllegalArgumentException If a route does not exist.
+     */
+    public void acquireUninterruptibly(int[] routes) {
+        int[] sorted = normalize(routes);
+        lock.lock();
+        try {
+            Waiter waiter = enqueue(sorted);
+            while (!waiter.acquired) {
+                waiter.granted.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the given routes and hands them to the waiting tournaments.
+     *
+     * @param routes The routes to release, numbered from 0.
+     * @throws IllegalArgumentException If a route does not exist.
+     * @throws IllegalStateException    If a route is not held.
+     */
+    public void release(int[] routes) {
+        int[] sorted = normalize(routes);
+        lock.lock();
+        try {
+            for (int route : sorted) {
+                if (!held[route])
+                    throw new IllegalStateException(name + " route " + (route + 1) + " is not held");
+            }
+            for (int route : sorted) {
+                held[route] = false;
+            }
+            grantWaiters();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of routes.
+     *
+     * @return The number of routes.
+     */
+    public int getRouteCount() {
+        return held.length;
+    }
+
+    /**
+     * Returns whether a route is held by a tournament.
+     *
+     * @param route The route, numbered from 0.
+     * @return true if the route is held, false otherwise.
+     */
+    public boolean isHeld(int route) {
+        lock.lock();
+        try {
+            return held[checkRoute(route)];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the load of a route: 1 if it is held, plus the number of tournaments waiting for it or reserving it.
+     *
+     * @param route The route, numbered from 0.
+     * @return The load of the route.
+     */
+    public int getLoad(int route) {
+        checkRoute(route);
+        lock.lock();
+        try {
+            int load = (held[route] ? 1 : 0) + reservations[route];
+            for (Waiter waiter : waiters) {
+                if (Arrays.binarySearch(waiter.routes, route) >= 0)
+                    ++load;
+            }
+            return load;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reserves the least loaded of the first routes. Ties go to the lowest route.
+     * The reservation counts in the load of the route until the route is acquired,
+     * so tournaments set up one after the other spread over the routes before any of them starts.
+     *
+     * @param limit The number of routes to choose from, starting at route 0.
+     * @return The reserved route, numbered from 0.
+     */
+    public int reserveLeastLoaded(int limit) {
+        limit = Math.max(1, Math.min(limit, held.length));
+        lock.lock();
+        try {
+            int best = 0;
+            int bestLoad = Integer.MAX_VALUE;
+            for (int route = 0; route < limit; ++route) {
+                int load = getLoad(route);
+                if (load < bestLoad) {
+                    best = route;
+                    bestLoad = load;
+                }
+            }
+            ++reservations[best];
+            return best;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of times a route was acquired.
+     *
+     * @param route The route, numbered from 0.
+     * @return The number of acquisitions.
+     */
+    public long getAcquisitions(int route) {
+        lock.lock();
+        try {
+            return acquisitions[checkRoute(route)];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of times a tournament had to wait for a route.
+     *
+     * @param route The route, numbered from 0.
+     * @return The number of contended acquisitions.
+     */
+    public long getContended(int route) {
+        lock.lock();
+        try {
+            return contended[checkRoute(route)];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total time the tournaments waited for a route.
+     *
+     * @param route The route, numbered from 0.
+     * @return The total wait time in nanoseconds.
+     */
+    public long getTotalWaitNanos(int route) {
+        lock.lock();
+        try {
+            return totalWaitNanos[checkRoute(route)];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the longest time a tournament waited for a route.
+     *
+     * @param route The route, numbered from 0.
+     * @return The longest wait time in nanoseconds.
+     */
+    public long getMaxWaitNanos(int route) {
+        lock.lock();
+        try {
+            return maxWaitNanos[checkRoute(route)];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the average time the tournaments waited for a route, counting the acquisitions without a wait.
+     *
+     * @param route The route, numbered from 0.
+     * @return The average wait time in nanoseconds, or 0 if the route was never acquired.
+     */
+    public double getAverageWaitNanos(int route) {
+        lock.lock();
+        try {
+            checkRoute(route);
+            return acquisitions[route] == 0 ? 0 : (double) totalWaitNanos[route] / acquisitions[route];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a report of the wait-time statistics of every route.
+     *
+     * @return A string with one line per route.
+     */
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        lock.lock();
+        try {
+            for (int route = 0; route < held.length; ++route) {
+                str.append(name).append(" route ").append(route + 1)
+                        .append(": acquisitions ").append(acquisitions[route])
+                        .append(", waits ").append(contended[route])
+                        .append(", average wait ").append(getAverageWaitNanos(route) / 1_000_000.0).append(" ms")
+                        .append(", max wait ").append(maxWaitNanos[route] / 1_000_000.0).append(" ms\n");
+            }
+        } finally {
+            lock.unlock();
+        }
+        return str.toString();
+    }
+
+    /**
+     * Cancels a reservation made by {@link #reserveLeastLoaded(int)} for a route that will not be asked for,
+     * because the tournament failed to set up or was aborted before it started.
+     *
+     * @param route The reserved route, numbered from 0.
+     * @throws IllegalArgumentException If the route does not exist.
+     */
+    public void cancelReservation(int route) {
+        checkRoute(route);
+        lock.lock();
+        try {
+            if (reservations[route] > 0)
+                --reservations[route];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a waiter for the given routes and hands it the routes if they are free.
+     * Must be called with the lock held.
+     *
+     * @param routes The routes to wait for, sorted and without duplicates.
+     * @return The new waiter.
+     */
+    private Waiter enqueue(int[] routes) {
+        Waiter waiter = new Waiter(routes, lock.newCondition());
+        for (int route : routes) {
+            if (reservations[route] > 0)
+                --reservations[route];
+        }
+        waiters.addLast(waiter);
+        grantWaiters();
+        if (!waiter.acquired) {
+            for (int route : routes) {
+                ++contended[route];
+            }
+        }
+        return waiter;
+    }
+
+    /**
+     * Removes a waiter that stopped waiting. Releases its routes if they were handed to it in the meantime.
+     * Must be called with the lock held.
+     *
+     * @param waiter The waiter to remove.
+     */
+    private void abandon(Waiter waiter) {
+        if (waiter.acquired) {
+            for (int route : waiter.routes) {
+                held[route] = false;
+            }
+        } else {
+            waiters.remove(waiter);
+        }
+        grantWaiters();
+    }
+
+    /**
+     * Hands the free routes to the waiters, in arrival order, and wakes up the waiters that got all their routes.
+     * A waiter that cannot get its routes reserves them, so later waiters do not overtake it on those routes.
+     * Must be called with the lock held.
+     */
+    private void grantWaiters() {
+        boolean[] reserved = new boolean[held.length];
+        Iterator<Waiter> iterator = waiters.iterator();
+        while (iterator.hasNext()) {
+            Waiter waiter = iterator.next();
+            boolean free = true;
+            for (int route : waiter.routes) {
+                if (held[route] || reserved[route]) {
+                    free = false;
+                    break;
+                }
+            }
+
+            if (free) {
+                long waitNanos = System.nanoTime() - waiter.startNanos;
+                for (int route : waiter.routes) {
+                    held[route] = true;
+                    ++acquisitions[route];
+                    totalWaitNanos[route] += waitNanos;
+                    maxWaitNanos[route] = Math.max(maxWaitNanos[route], waitNanos);
+                }
+                waiter.acquired = true;
+                iterator.remove();
+                waiter.granted.signal();
+            } else {
+                for (int route : waiter.routes) {
+                    reserved[route] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a sorted copy of the routes without duplicates.
+     *
+     * @param routes The routes, numbered from 0.
+     * @return The sorted routes.
+     * @throws IllegalArgumentException If a route does not exist.
+     */
+    private int[] normalize(int[] routes) {
+        int[] sorted = routes.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; ++i) {
+            checkRoute(sorted[i]);
+            if (count == 0 || sorted[count - 1] != sorted[i])
+                sorted[count++] = sorted[i];
+        }
+        return Arrays.copyOf(sorted, count);
+    }
+
+    /**
+     * Checks that a route exists.
+     *
+     * @param route The route, numbered from 0.
+     * @return The route.
+     * @throws IllegalArgumentException If the route does not exist.
+     */
+    private int checkRoute(int route) {
+        if (route < 0 || route >= held.length)
+            throw new IllegalArgumentException(name + " route " + (route + 1) + " does not exist");
+        return route;
+    }
+}
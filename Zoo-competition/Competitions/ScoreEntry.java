@@ -0,0 +1,107 @@
+package Competitions;
+
+import java.util.Date;
+
+/**
+ * The ScoreEntry class is an immutable record of one finish in a tournament:
+ * who finished, in which place, and when.
+ */
+public class ScoreEntry {
+
+    /**
+     * The name of the group or animal that finished.
+     */
+    private final String name;
+
+    /**
+     * The place of the finish, starting at 1.
+     */
+    private final int place;
+
+    /**
+     * The {@link System#nanoTime()} stamp of the finish.
+     */
+    private final long finishNanos;
+
+    /**
+     * The time in nanoseconds from the creation of the scores to the finish.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * The wall-clock time of the finish, used for display.
+     */
+    private final Date date;
+
+    /**
+     * Constructs a ScoreEntry with the given values.
+     *
+     * @param name         The name of the group or animal that finished.
+     * @param place        The place of the finish, starting at 1.
+     * @param finishNanos  The {@link System#nanoTime()} stamp of the finish.
+     * @param elapsedNanos The time in nanoseconds from the creation of the scores to the finish.
+     * @param date         The wall-clock time of the finish.
+     */
+    public ScoreEntry(String name, int place, long finishNanos, long elapsedNanos, Date date) {
+        this.name = name;
+        this.place = place;
+        this.finishNanos = finishNanos;
+        this.elapsedNanos = elapsedNanos;
+        this.date = new Date(date.getTime());
+    }
+
+    /**
+     * Returns the name of the group or animal that finished.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the place of the finish.
+     *
+     * @return The place, starting at 1.
+     */
+    public int getPlace() {
+        return place;
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} stamp of the finish.
+     *
+     * @return The finish stamp in nanoseconds.
+     */
+    public long getFinishNanos() {
+        return finishNanos;
+    }
+
+    /**
+     * Returns the time from the creation of the scores to the finish.
+     *
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the wall-clock time of the finish.
+     *
+     * @return A copy of the finish date.
+     */
+    public Date getDate() {
+        return new Date(date.getTime());
+    }
+
+    /**
+     * Returns a string representation of the entry.
+     *
+     * @return A string with the place, the name, the date and the elapsed time.
+     */
+    @Override
+    public String toString() {
+        return place + ". " + name + " " + date + " (" + elapsedNanos / 1_000_000.0 + " ms)";
+    }
+}
@@ -1,65 +1,204 @@
 package Competitions;
 
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * The Scores class maintains a record of scores, where each score is associated with a name and a timestamp.
- * Scores are stored in a thread-safe manner using a synchronized map.
+ * The Scores class maintains a record of scores, where each score is associated with a name, a place and a finish time.
+ * Finish times are {@link System#nanoTime()} stamps and places come from an atomic counter,
+ * so finishes within the same millisecond stay distinguishable.
+ * Scores are kept in concurrent maps: recording and reading the ranking never take a global lock.
+ * A place is handed out before its entry is ranked, so readers of the ranking stop at the first place not ranked yet
+ * instead of showing a later place without the ones before it.
  */
 public class Scores {
 
     /**
-     * Map to store scores, where the key is the name and the value is the timestamp of the score
-     * */
-    private Map<String, Date> scores;
+     * Map from the name to its score entry.
+     */
+    private final ConcurrentHashMap<String, ScoreEntry> scores;
+
+    /**
+     * Map from the place to its score entry, ordered by place.
+     */
+    private final ConcurrentNavigableMap<Integer, ScoreEntry> ranking;
+
+    /**
+     * Counter handing out the places, in the order the scores are recorded.
+     */
+    private final AtomicInteger placeCounter;
+
+    /**
+     * The {@link System#nanoTime()} stamp of the creation of the scores, the reference for elapsed times.
+     */
+    private final long startNanos;
+
+    /**
+     * The listeners notified of every new finish.
+     */
+    private final CopyOnWriteArrayList<IScoreListener> listeners;
 
     /**
-     * Constructs an empty Scores object with a synchronized map.
+     * Constructs an empty Scores object.
      */
     public Scores() {
-        this.scores = Collections.synchronizedMap(new HashMap<>());
+        this.scores = new ConcurrentHashMap<>();
+        this.ranking = new ConcurrentSkipListMap<>();
+        this.placeCounter = new AtomicInteger(0);
+        this.startNanos = System.nanoTime();
+        this.listeners = new CopyOnWriteArrayList<>();
     }
 
     /**
      * Constructs a Scores object with the given map of scores.
+     * The places are given in the order of the timestamps, and the elapsed times are measured from the earliest one.
      *
      * @param scores A map of scores where the key is the name and the value is the timestamp.
      */
     public Scores(Map<String, Date> scores) {
-        this.scores = Collections.synchronizedMap(scores);
+        this();
+        List<Map.Entry<String, Date>> entries = new ArrayList<>(scores.entrySet());
+        entries.sort(Map.Entry.comparingByValue());
+        long nowMillis = System.currentTimeMillis();
+        long firstMillis = entries.isEmpty() ? nowMillis : entries.get(0).getValue().getTime();
+        for (Map.Entry<String, Date> entry : entries) {
+            int place = placeCounter.incrementAndGet();
+            long finishMillis = entry.getValue().getTime();
+            // The finish stamp is the date taken over to the clock of System.nanoTime()
+            long finishNanos = startNanos + (finishMillis - nowMillis) * 1_000_000L;
+            ScoreEntry score = new ScoreEntry(entry.getKey(), place, finishNanos,
+                    (finishMillis - firstMillis) * 1_000_000L, entry.getValue());
+            this.scores.put(entry.getKey(), score);
+            this.ranking.put(place, score);
+        }
     }
 
     /**
-     * Adds a new score with the current timestamp for the given name.
+     * Records a finish with the current time for the given name.
+     * A name that was already recorded keeps its place.
+     * The listeners are notified of the finish of a new name.
      *
      * @param name The name associated with the score.
+     * @return The place of the name.
+     */
+    public int add(String name) {
+        ScoreEntry[] created = new ScoreEntry[1];
+        ScoreEntry score = scores.computeIfAbsent(name, key -> {
+            long finishNanos = System.nanoTime();
+            created[0] = new ScoreEntry(key, placeCounter.incrementAndGet(), finishNanos, finishNanos - startNanos, new Date());
+            ranking.put(created[0].getPlace(), created[0]);
+            return created[0];
+        });
+        if (created[0] != null) {
+            for (IScoreListener listener : listeners) {
+                listener.onScore(created[0]);
+            }
+        }
+        return score.getPlace();
+    }
+
+    /**
+     * Adds a listener notified of every finish recorded after this call.
+     *
+     * @param listener The listener to add.
      */
-    public void add(String name) {
-        this.scores.put(name, new Date());
+    public void addListener(IScoreListener listener) {
+        listeners.add(listener);
     }
 
     /**
-     * Retrieves all scores in the form of a map.
+     * Removes a listener.
      *
-     * @return A map of all scores, where the key is the name and the value is the timestamp.
+     * @param listener The listener to remove.
      */
-    public Map<String, Date> getAll() {
-        return scores;  // Consider returning an unmodifiable view if the map should not be modified outside.
+    public void removeListener(IScoreListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the number of recorded scores.
+     *
+     * @return The number of names that finished.
+     */
+    public int size() {
+        return scores.size();
+    }
+
+    /**
+     * Returns the place of the given name.
+     *
+     * @param name The name to look up.
+     * @return The place of the name, starting at 1, or 0 if the name did not finish yet.
+     */
+    public int getPlace(String name) {
+        ScoreEntry score = scores.get(name);
+        return score == null ? 0 : score.getPlace();
+    }
+
+    /**
+     * Returns the score entry of the given name.
+     *
+     * @param name The name to look up.
+     * @return The score entry, or null if the name did not finish yet.
+     */
+    public ScoreEntry getScore(String name) {
+        return scores.get(name);
+    }
+
+    /**
+     * Returns all recorded scores ordered by place.
+     *
+     * @return A new list of the score entries, first place first.
+     */
+    public List<ScoreEntry> getRanking() {
+        return getRanked(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the first places of the ranking.
+     *
+     * @param n The number of places to return.
+     * @return A new list of at most n score entries, first place first.
+     */
+    public List<ScoreEntry> getTop(int n) {
+        if (n <= 0)
+            return new ArrayList<>();
+        return getRanked(n);
+    }
+
+    /**
+     * Returns the first places of the ranking, up to the first place handed out but not ranked yet.
+     *
+     * @param n The number of places to return.
+     * @return A new list of at most n score entries with no missing place, first place first.
+     */
+    private List<ScoreEntry> getRanked(int n) {
+        List<ScoreEntry> ranked = new ArrayList<>();
+        for (ScoreEntry entry : ranking.values()) {
+            if (ranked.size() >= n || entry.getPlace() != ranked.size() + 1)
+                break;
+            ranked.add(entry);
+        }
+        return ranked;
     }
 
     /**
      * Returns a string representation of all scores.
      *
-     * @return A string representing all scores, including names and timestamps.
+     * @return A string representing all scores ordered by place, including names and timestamps.
      */
     @Override
     public String toString() {
         StringBuilder str = new StringBuilder();
-        for (Map.Entry<String, Date> entry : scores.entrySet()) {
-            str.append(entry.getKey()).append(" ").append(entry.getValue()).append("\n");
+        for (ScoreEntry entry : getRanking()) {
+            str.append(entry.getName()).append(" ").append(entry.getDate()).append("\n");
         }
         return str.toString();
     }
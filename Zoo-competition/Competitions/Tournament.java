@@ -1,25 +1,73 @@
 package Competitions;
 
 import Animals.Animal;
+import Animals.AnimalThread;
+import Animals.Category;
+import Animals.TerrestrialAnimals;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Abstract class representing a generic tournament involving animals.
  * This class sets up and manages the tournament thread.
+ * <p>
+ * All the tasks of a tournament are forked into one {@link TournamentScope}, and a supervisor waits for them at a single
+ * join point: when a task fails, the tournament is {@link #abort() aborted} or it runs longer than
+ * {@value #TIMEOUT_PROPERTY} seconds, the remaining tasks are interrupted and the animals go back to their start.
+ * </p>
  */
 public abstract class Tournament {
 
+    /**
+     * System property setting the longest time a tournament may run, in seconds, including the wait for its routes.
+     * 0, the default, means no limit.
+     */
+    public static final String TIMEOUT_PROPERTY = "zoo.tournament.timeout";
+
     /**
      * The thread responsible for running the tournament
      */
     private TournamentThread tournamentThread;
 
+    /**
+     * The scope holding the tasks of the tournament.
+     */
+    private final TournamentScope scope;
+
+    /**
+     * The terrestrial lane reserved by {@link #assignLane(Animal[][])} and not asked for yet, or -1.
+     */
+    private final AtomicInteger reservedLane = new AtomicInteger(-1);
+
+    /**
+     * Puts back the animals whose thread has not started, each one at most once.
+     * An animal thread that starts takes its animal over, and puts it back itself when it ends.
+     */
+    private final List<Runnable> racerRestores = new CopyOnWriteArrayList<>();
+
     /**
      * Constructs a Tournament and sets it up with the given animals.
+     * If the setup fails, the tasks already started are cancelled and a reserved lane is given back.
      *
      * @param animals A 2D array of Animal objects representing the participants in the tournament.
      */
     public Tournament(Animal[][] animals) {
-        setUp(animals);
+        scope = new TournamentScope(getClass().getSimpleName());
+        try {
+            setUp(animals);
+        } catch (RuntimeException e) {
+            scope.close();
+            cancelReservedLane();
+            restoreUnstartedRacers();
+            throw e;
+        }
     }
 
     /**
@@ -37,17 +85,183 @@ public abstract class Tournament {
      * @return An integer representing the animal's category. Returns 0 if the category name does not match any known categories.
      */
     protected int getAnimalAsNumber(String animalName) {
-        switch (animalName) {
-            case "Water":
-                return 1;
-            case "Air":
-                return 2;
-            case "Terrestrial":
-                return 3;
-            case "Terrestrial+Water":
-                return 1;
-            default:
-                return 0;
+        Category category = Category.fromName(animalName);
+        return category == null ? 0 : category.getCompetitionType();
+    }
+
+    /**
+     * Creates the route flags of a tournament, all unset.
+     * There is one flag per route (or lane) of the competition type, and at least 5.
+     *
+     * @param type The competition type (1 for water, 2 for air, 3 for terrestrial).
+     * @return The route flags.
+     */
+    protected AtomicBoolean[] createRouteFlags(int type) {
+        RouteLockManager routes = TournamentThread.getRouteLocks(type);
+        int count = Math.max(5, routes == null ? 0 : routes.getRouteCount());
+        AtomicBoolean[] flags = new AtomicBoolean[count];
+        for (int i = 0; i < count; i++) {
+            flags[i] = new AtomicBoolean(false);
+        }
+        return flags;
+    }
+
+    /**
+     * Picks the least loaded terrestrial lane that fits in the track geometry of the animals,
+     * and moves all the animals to the start of that lane.
+     * The lane stays reserved until the tournament thread asks for it, or the tournament ends without asking.
+     *
+     * @param animals A 2D array of terrestrial animals participating in the tournament.
+     * @return The lane of the tournament, starting at 0.
+     */
+    protected int assignLane(Animal[][] animals) {
+        Animal first = animals[0][0];
+        int usable = first.getTrackGeometry().getLaneCount();
+        int lane = TournamentThread.getRouteLocks(3).reserveLeastLoaded(usable);
+        reservedLane.set(lane);
+
+        for (Animal[] group : animals) {
+            for (Animal animal : group) {
+                if (animal instanceof TerrestrialAnimals) {
+                    ((TerrestrialAnimals) animal).setLane(lane);
+                    animal.setInitialLocation();
+                }
+            }
+        }
+        return lane;
+    }
+
+    /**
+     * Gives back the lane reserved by {@link #assignLane(Animal[][])} if the tournament thread did not ask for it,
+     * so the reservation does not count in the load of the lane forever.
+     * Called when no task of the tournament runs any more.
+     */
+    private void cancelReservedLane() {
+        int lane = reservedLane.getAndSet(-1);
+        if (lane >= 0)
+            TournamentThread.getRouteLocks(3).cancelReservation(lane);
+    }
+
+    /**
+     * Tells every animal of the tournament which kind of tournament it races in.
+     *
+     * @param animals        A 2D array of Animal objects representing the participants in the tournament.
+     * @param regularCourier The kind of tournament: 1 for regular, 2 for courier.
+     */
+    protected void setRegularCourier(Animal[][] animals, int regularCourier) {
+        for (Animal[] group : animals) {
+            for (Animal animal : group) {
+                animal.setRegularCourierTournament(regularCourier);
+            }
+        }
+    }
+
+    /**
+     * Sets the TournamentThread of this tournament, records the tournament in the active journal if there is one,
+     * and runs the TournamentThread on the tournament executor.
+     * The race starts only when the TournamentThread runs, so the journal sees the animals before they move.
+     *
+     * @param animals          A 2D array of Animal objects representing the participants in the tournament.
+     * @param tournamentThread The TournamentThread to run.
+     */
+    protected void startTournamentThread(Animal[][] animals, TournamentThread tournamentThread) {
+        setTournamentThread(tournamentThread);
+        tournamentThread.setReservedLane(reservedLane);
+        TournamentJournal journal = TournamentJournal.getActive();
+        if (journal != null)
+            journal.recordTournament(animals, tournamentThread);
+        fork(tournamentThread, "tournament thread");
+        TournamentExecutor.getInstance().execute(this::supervise);
+    }
+
+    /**
+     * Runs a task of the tournament, such as an animal thread or a referee, in the scope of the tournament.
+     *
+     * @param task     The task to run.
+     * @param taskName The name of the task, used in messages.
+     */
+    protected void fork(Runnable task, String taskName) {
+        scope.fork(task, taskName);
+    }
+
+    /**
+     * Marks an animal unavailable and runs its thread in the scope of the tournament.
+     * If the thread never runs, because it was rejected or the tournament was cancelled before it started,
+     * the tournament puts the animal back at its start and makes it available again.
+     *
+     * @param animal       The racing animal.
+     * @param animalThread The thread of the animal.
+     */
+    protected void forkRacer(Animal animal, AnimalThread animalThread) {
+        AtomicBoolean claimed = new AtomicBoolean(false);
+        animal.setIsAvailable(false);
+        racerRestores.add(() -> {
+            if (claimed.compareAndSet(false, true))
+                restore(animal);
+        });
+        fork(() -> {
+            if (claimed.compareAndSet(false, true))
+                animalThread.run();
+        }, animal.getAnimalName());
+    }
+
+    /**
+     * Puts back the animals whose thread never started. Called when no task of the tournament runs any more.
+     */
+    private void restoreUnstartedRacers() {
+        for (Runnable restore : racerRestores) {
+            restore.run();
+        }
+    }
+
+    /**
+     * Stops an animal, puts it back at its start and makes it available for another tournament.
+     *
+     * @param animal The animal to put back.
+     */
+    private static void restore(Animal animal) {
+        animal.stopMoving();
+        animal.setInitialLocation();
+        animal.setIsAvailable(true);
+        animal.setNeedToMove(false);
+    }
+
+    /**
+     * Aborts the tournament: every task still running is interrupted, the animals go back to their start
+     * and the completion of the tournament thread ends with a {@link CancellationException}.
+     * Aborting a tournament that is over has no effect.
+     */
+    public void abort() {
+        scope.cancel();
+    }
+
+    /**
+     * Returns whether the tournament was aborted, by {@link #abort()}, a failed task or the timeout.
+     *
+     * @return true if the tournament was aborted, false otherwise.
+     */
+    public boolean isAborted() {
+        return scope.isCancelled();
+    }
+
+    /**
+     * Waits for all the tasks of the tournament, then closes its scope.
+     * Runs on the tournament executor, and is the only place the tournament is joined.
+     */
+    private void supervise() {
+        long timeout = TimeUnit.SECONDS.toNanos(Long.getLong(TIMEOUT_PROPERTY, 0));
+        try {
+            scope.join(timeout);
+        } catch (TimeoutException | ExecutionException | CancellationException e) {
+            System.out.println(e.getMessage());
+        } catch (InterruptedException e) {
+            scope.cancel();
+            Thread.currentThread().interrupt();
+        } finally {
+            scope.close();
+            cancelReservedLane();
+            restoreUnstartedRacers();
+            tournamentThread.getCompletion().completeExceptionally(new CancellationException("Tournament aborted"));
         }
     }
 
@@ -0,0 +1,150 @@
+package Competitions;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Class that runs many tournaments without the competition frame, for sweeps of thousands of races.
+ * The tournaments run in parallel on the {@link TournamentExecutor}, at most a fixed number at a time,
+ * and the scores of each tournament are handed to a consumer as soon as it is over, in the order the tournaments finish.
+ * Specs that carry a {@link Animals.TrackGeometry} race without any panel, so a sweep starts no Swing timer.
+ * <p>
+ * Tournaments on the same routes or lane still wait for each other, as in the frame; they count against the limit while waiting.
+ * For sweeps that do not need real-time movement, the simulation can run unpaced with {@link Animals.SimulationEngine#setPaced(boolean)}.
+ * </p>
+ */
+public class TournamentBatchRunner {
+
+    /**
+     * The maximum number of tournaments running at once.
+     */
+    private final int maxConcurrent;
+
+    /**
+     * Permits for the running tournaments.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Number of tournaments that are over.
+     */
+    private final AtomicInteger completed;
+
+    /**
+     * Number of tournaments that could not be run or did not end normally.
+     */
+    private final AtomicInteger failed;
+
+    /**
+     * Constructs a TournamentBatchRunner.
+     *
+     * @param maxConcurrent The maximum number of tournaments running at once.
+     * @throws IllegalArgumentException If the maximum is not positive.
+     */
+    public TournamentBatchRunner(int maxConcurrent) {
+        if (maxConcurrent <= 0)
+            throw new IllegalArgumentException("Maximum number of tournaments must be positive: " + maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.completed = new AtomicInteger(0);
+        this.failed = new AtomicInteger(0);
+    }
+
+    /**
+     * Runs all the tournaments and waits until they are over.
+     * A tournament starts as soon as fewer than the maximum number of tournaments are running.
+     * The consumer is called on the thread that ran the tournament; an exception thrown by it is printed and ignored.
+     *
+     * @param specs    The tournaments to run, started in list order.
+     * @param consumer Receives each tournament with its scores as soon as it is over.
+     * @return The number of tournaments that ended normally.
+     * @throws InterruptedException If the thread is interrupted while waiting; tournaments already started keep running.
+     */
+    public int runAll(List<TournamentSpec> specs, BiConsumer<TournamentSpec, Scores> consumer) throws InterruptedException {
+        AtomicInteger succeeded = new AtomicInteger(0);
+        for (TournamentSpec spec : specs) {
+            permits.acquire();
+            start(spec, consumer, succeeded);
+        }
+
+        // All permits are back once the last tournament is over
+        permits.acquire(maxConcurrent);
+        permits.release(maxConcurrent);
+        return succeeded.get();
+    }
+
+    /**
+     * Returns the maximum number of tournaments running at once.
+     *
+     * @return The maximum number of tournaments.
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Returns the number of tournaments running now.
+     *
+     * @return The number of running tournaments.
+     */
+    public int getRunning() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * Returns the number of tournaments that are over, since the runner was created.
+     *
+     * @return The number of completed tournaments.
+     */
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Returns the number of tournaments that could not be run or did not end normally, since the runner was created.
+     *
+     * @return The number of failed tournaments.
+     */
+    public int getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Starts a tournament holding a permit, and releases the permit when the tournament is over.
+     *
+     * @param spec      The tournament to run.
+     * @param consumer  Receives the tournament with its scores when it is over.
+     * @param succeeded Counts the tournaments of the batch that ended normally.
+     */
+    private void start(TournamentSpec spec, BiConsumer<TournamentSpec, Scores> consumer, AtomicInteger succeeded) {
+        TournamentThread tournamentThread;
+        try {
+            tournamentThread = spec.createTournament().getTournamentThread();
+        } catch (RuntimeException e) {
+            System.out.println("Cannot start " + spec + ": " + e.getMessage());
+            failed.incrementAndGet();
+            completed.incrementAndGet();
+            permits.release();
+            return;
+        }
+
+        tournamentThread.getCompletion().whenComplete((scores, error) -> {
+            try {
+                if (error != null) {
+                    System.out.println(spec + " failed: " + error.getMessage());
+                    failed.incrementAndGet();
+                } else {
+                    succeeded.incrementAndGet();
+                    consumer.accept(spec, scores);
+                }
+            } catch (RuntimeException e) {
+                System.out.println(e.getMessage());
+            } finally {
+                completed.incrementAndGet();
+                permits.release();
+            }
+        });
+    }
+}
@@ -0,0 +1,159 @@
+package Competitions;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Singleton class that runs the tasks of all tournaments: animal threads, referees and tournament threads.
+ * Each tournament forks its tasks into a {@link TournamentScope}, which joins and cancels them together.
+ * The mode is selected once, at startup, with the system property {@value #MODE_PROPERTY}:
+ * <ul>
+ *   <li>{@code pooled} (default) - a bounded pool of reusable platform threads.</li>
+ *   <li>{@code virtual} - a new virtual thread per task. Falls back to the pool on a runtime without virtual threads.</li>
+ * </ul>
+ * Every task of a running tournament blocks until the race is over, so a tournament holds one worker per task
+ * while it runs. The bound of the pool ({@value #THREADS_PROPERTY}) must be sized for the number of concurrent tournaments.
+ */
+public class TournamentExecutor {
+
+    /**
+     * System property selecting the execution mode: "pooled" or "virtual".
+     */
+    public static final String MODE_PROPERTY = "zoo.executor";
+
+    /**
+     * System property setting the maximum number of threads in the pooled mode.
+     */
+    public static final String THREADS_PROPERTY = "zoo.executor.threads";
+
+    /**
+     * Default maximum number of threads in the pooled mode.
+     */
+    private static final int DEFAULT_MAX_THREADS = 512;
+
+    /**
+     * Time in seconds an idle pooled thread is kept before it is released.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    /**
+     * Static instance of TournamentExecutor for Singleton pattern.
+     */
+    private static TournamentExecutor instance = null;
+
+    /**
+     * The executor running the tournament tasks.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Whether the tasks run on virtual threads.
+     */
+    private final boolean virtual;
+
+    /**
+     * Private constructor to prevent external instantiation.
+     * Reads the mode from the system properties.
+     */
+    private TournamentExecutor() {
+        ExecutorService virtualExecutor = null;
+        if ("virtual".equalsIgnoreCase(System.getProperty(MODE_PROPERTY, "pooled"))) {
+            virtualExecutor = createVirtualExecutor();
+            if (virtualExecutor == null)
+                System.out.println("Virtual threads are not available, using pooled threads");
+        }
+
+        if (virtualExecutor != null) {
+            executor = virtualExecutor;
+            virtual = true;
+        } else {
+            executor = createPooledExecutor(Integer.getInteger(THREADS_PROPERTY, DEFAULT_MAX_THREADS));
+            virtual = false;
+        }
+    }
+
+    /**
+     * Gets the single instance of the TournamentExecutor class.
+     * If the instance does not exist, it is created in the mode selected by the system properties.
+     *
+     * @return The single instance of the TournamentExecutor class.
+     */
+    public static synchronized TournamentExecutor getInstance() {
+        if (instance == null) {
+            instance = new TournamentExecutor();
+        }
+        return instance;
+    }
+
+    /**
+     * Runs a tournament task.
+     *
+     * @param task The task to run.
+     * @throws java.util.concurrent.RejectedExecutionException If the pool has no thread left for the task.
+     */
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Returns whether the tasks run on virtual threads.
+     *
+     * @return true in the virtual mode, false in the pooled mode.
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Returns the underlying executor service.
+     *
+     * @return The executor service running the tournament tasks.
+     */
+    public ExecutorService getExecutorService() {
+        return executor;
+    }
+
+    /**
+     * Creates a bounded pool of reusable daemon threads.
+     * Tasks are handed directly to an idle thread, or to a new one while the bound is not reached.
+     *
+     * @param maxThreads The maximum number of threads; values below 1 use the default.
+     * @return The pooled executor.
+     */
+    private static ExecutorService createPooledExecutor(int maxThreads) {
+        if (maxThreads < 1)
+            maxThreads = DEFAULT_MAX_THREADS;
+        int coreThreads = Math.min(Runtime.getRuntime().availableProcessors(), maxThreads);
+
+        AtomicInteger threadNumber = new AtomicInteger(0);
+        ThreadFactory threadFactory = task -> {
+            Thread thread = new Thread(task, "tournament-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        return new ThreadPoolExecutor(coreThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threadFactory);
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread per task.
+     * Looked up reflectively so the application still runs on a runtime without virtual threads.
+     *
+     * @return The virtual thread executor, or null if virtual threads are not available.
+     */
+    private static ExecutorService createVirtualExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
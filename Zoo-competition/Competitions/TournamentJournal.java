@@ -0,0 +1,565 @@
+package Competitions;
+
+import Animals.Animal;
+import Animals.ISimulationObserver;
+import Animals.SimulationEngine;
+import Animals.TerrestrialAnimals;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class that records every tournament into a compact binary journal, so that a race can be replayed exactly as it ran.
+ * The journal holds the parameters of every animal when its tournament is set up, the changes of position, energy and
+ * orientation of the animals after every tick of the {@link SimulationEngine}, and the finishes recorded by the referees.
+ * <p>
+ * Records are appended to a direct buffer, which is handed to a writer thread when it is full, when a tournament is over,
+ * or when the journal is closed, and replaced by a spare buffer. The file is only ever written on the writer thread,
+ * so recording costs the tick loop a few comparisons per animal and never waits for the disk.
+ * Recording is enabled with the system property {@value #PATH_PROPERTY}, or with {@link #start(Path)}.
+ * </p>
+ * <p>
+ * A journal is a sequence of sessions, one per recording, each starting with a {@link #SESSION} record.
+ * Every record starts with its type byte, and numbers are big-endian:
+ * </p>
+ * <ul>
+ *     <li>{@link #SESSION}: magic int, version short, tick length long (ns), start time long (ms).</li>
+ *     <li>{@link #ANIMAL}: index int, type, name and category strings, speed double, energy per meter, max energy,
+ *     energy, size, route and lane ints, x and y ints, orientation byte, total distance double.</li>
+ *     <li>{@link #TOURNAMENT}: tournament int, tick long, regular/courier byte, competition type byte, group count int,
+ *     then for every group its animal count int and animal indexes ints.</li>
+ *     <li>{@link #TICK}: tick long. The deltas that follow belong to this tick.</li>
+ *     <li>{@link #DELTA}: index int, dx and dy shorts, energy change int, orientation byte.</li>
+ *     <li>{@link #FINISH}: tournament int, tick long, place int, elapsed time long (ns), date long (ms), name string.</li>
+ *     <li>{@link #END}: tournament int, tick long.</li>
+ * </ul>
+ * Strings are written as a short length followed by at most {@value #MAX_STRING_BYTES} UTF-8 bytes.
+ */
+public class TournamentJournal implements ISimulationObserver, Closeable {
+
+    /**
+     * System property holding the path of the journal to record into.
+     */
+    public static final String PATH_PROPERTY = "zoo.journal";
+
+    /**
+     * Magic number at the start of every session, "ZOOJ".
+     */
+    public static final int MAGIC = 0x5A4F4F4A;
+
+    /**
+     * Version of the journal format.
+     */
+    public static final short VERSION = 1;
+
+    /**
+     * Type of the record starting a session.
+     */
+    public static final byte SESSION = 0;
+
+    /**
+     * Type of the record describing an animal when its tournament is set up.
+     */
+    public static final byte ANIMAL = 1;
+
+    /**
+     * Type of the record describing a tournament.
+     */
+    public static final byte TOURNAMENT = 2;
+
+    /**
+     * Type of the record starting the changes of a tick.
+     */
+    public static final byte TICK = 3;
+
+    /**
+     * Type of the record holding the change of one animal during a tick.
+     */
+    public static final byte DELTA = 4;
+
+    /**
+     * Type of the record of a finish.
+     */
+    public static final byte FINISH = 5;
+
+    /**
+     * Type of the record marking the end of a tournament.
+     */
+    public static final byte END = 6;
+
+    /**
+     * Size of the write buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Number of written buffers kept for reuse.
+     */
+    private static final int SPARE_BUFFERS = 2;
+
+    /**
+     * Longest time {@link #close()} waits for the writer thread to write the last buffers, in seconds.
+     */
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Longest string written to the journal, in bytes.
+     */
+    private static final int MAX_STRING_BYTES = 1024;
+
+    /**
+     * The journal recording the tournaments, or null if there is none.
+     */
+    private static TournamentJournal active = null;
+
+    /**
+     * Whether the system property was already looked up.
+     */
+    private static boolean propertyChecked = false;
+
+    /**
+     * The state of a recorded animal as last written to the journal.
+     */
+    private static class Tracked {
+
+        /**
+         * The recorded animal.
+         */
+        private final Animal animal;
+
+        /**
+         * The index of the animal in the journal session.
+         */
+        private final int index;
+
+        /**
+         * The last written X coordinate.
+         */
+        private int x;
+
+        /**
+         * The last written Y coordinate.
+         */
+        private int y;
+
+        /**
+         * The last written energy.
+         */
+        private int energy;
+
+        /**
+         * The last written orientation, as an ordinal.
+         */
+        private byte orientation;
+
+        /**
+         * Number of running tournaments of the animal.
+         */
+        private int tournaments;
+
+        /**
+         * Constructs a Tracked animal with its current state.
+         *
+         * @param animal The recorded animal.
+         * @param index  The index of the animal in the journal session.
+         */
+        private Tracked(Animal animal, int index) {
+            this.animal = animal;
+            this.index = index;
+            this.x = animal.getLocationX();
+            this.y = animal.getLocationY();
+            this.energy = animal.getCurrentEnergy();
+            this.orientation = (byte) animal.getOrientation().ordinal();
+            this.tournaments = 0;
+        }
+    }
+
+    /**
+     * The channel of the journal file, opened for appending. Written only by the writer thread.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Buffer the records are appended to, until it is handed to the writer thread.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Written buffers, cleared and ready to be filled again.
+     */
+    private final BlockingQueue<ByteBuffer> spares;
+
+    /**
+     * Writes the handed buffers to the file one after the other, in the order they were handed.
+     */
+    private final ExecutorService writer;
+
+    /**
+     * The recorded animals, by animal.
+     */
+    private final IdentityHashMap<Animal, Tracked> tracked;
+
+    /**
+     * The recorded animals, in the order the tick loop visits them.
+     */
+    private final List<Tracked> trackedList;
+
+    /**
+     * The index of the next recorded animal.
+     */
+    private int nextIndex;
+
+    /**
+     * The number of the next recorded tournament.
+     */
+    private int nextTournament;
+
+    /**
+     * Whether the journal was closed or a write failed. No record is appended afterwards.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Whether a write failed. No buffer is written afterwards, so the file never holds a record without the ones before it.
+     */
+    private volatile boolean failed;
+
+    /**
+     * Opens a journal file for appending and starts a new session in it.
+     *
+     * @param path The journal file, created if it does not exist.
+     * @throws IOException If the file cannot be opened or written.
+     */
+    public TournamentJournal(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.spares = new ArrayBlockingQueue<>(SPARE_BUFFERS);
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "journal-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.tracked = new IdentityHashMap<>();
+        this.trackedList = new ArrayList<>();
+        this.nextIndex = 0;
+        this.nextTournament = 0;
+        this.closed = false;
+        this.failed = false;
+
+        ensure(23);
+        buffer.put(SESSION).putInt(MAGIC).putShort(VERSION)
+                .putLong(SimulationEngine.getInstance().getTickNanos()).putLong(System.currentTimeMillis());
+        flush();
+    }
+
+    /**
+     * Starts recording all new tournaments into a journal file, replacing the active journal.
+     *
+     * @param path The journal file, created if it does not exist and appended to otherwise.
+     * @return The new active journal.
+     * @throws IOException If the file cannot be opened or written.
+     */
+    public static synchronized TournamentJournal start(Path path) throws IOException {
+        stop();
+        propertyChecked = true;
+        active = new TournamentJournal(path);
+        SimulationEngine.getInstance().addObserver(active);
+        return active;
+    }
+
+    /**
+     * Stops recording and closes the active journal, if there is one.
+     */
+    public static synchronized void stop() {
+        if (active != null) {
+            SimulationEngine.getInstance().removeObserver(active);
+            try {
+                active.close();
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+            active = null;
+        }
+    }
+
+    /**
+     * Gets the journal recording the tournaments.
+     * On the first call, starts the journal named by the system property {@value #PATH_PROPERTY}, if it is set;
+     * that journal is closed when the program exits.
+     *
+     * @return The active journal, or null if the tournaments are not recorded.
+     */
+    public static synchronized TournamentJournal getActive() {
+        if (!propertyChecked) {
+            propertyChecked = true;
+            String path = System.getProperty(PATH_PROPERTY);
+            if (path != null) {
+                try {
+                    start(Paths.get(path));
+                    Runtime.getRuntime().addShutdownHook(new Thread(TournamentJournal::stop, "journal-close"));
+                } catch (IOException e) {
+                    System.out.println("Cannot open journal " + path + ": " + e.getMessage());
+                }
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Records a tournament before it starts: its animals, its groups, and from now on its finishes.
+     *
+     * @param animals          The groups of animals of the tournament.
+     * @param tournamentThread The thread of the tournament.
+     */
+    public synchronized void recordTournament(Animal[][] animals, TournamentThread tournamentThread) {
+        if (closed)
+            return;
+        int tournament = nextTournament++;
+        long tick = SimulationEngine.getInstance().getTickCount();
+
+        List<Tracked> members = new ArrayList<>();
+        for (Animal[] group : animals) {
+            for (Animal animal : group) {
+                members.add(track(animal));
+            }
+        }
+
+        ensure(19 + 4 * (animals.length + members.size()));
+        buffer.put(TOURNAMENT).putInt(tournament).putLong(tick)
+                .put((byte) tournamentThread.getRegularCourier()).put((byte) tournamentThread.getCompetitionType())
+                .putInt(animals.length);
+        int member = 0;
+        for (Animal[] group : animals) {
+            buffer.putInt(group.length);
+            for (int i = 0; i < group.length; i++) {
+                buffer.putInt(members.get(member++).index);
+            }
+        }
+
+        tournamentThread.getScores().addListener(score -> recordFinish(tournament, score));
+        tournamentThread.getCompletion().whenComplete((scores, error) -> recordEnd(tournament, members));
+    }
+
+    /**
+     * Writes the changes of the recorded animals during the tick that has just completed.
+     *
+     * @param tick the number of the tick that has just completed.
+     */
+    @Override
+    public synchronized void onTick(long tick) {
+        if (closed)
+            return;
+        boolean started = false;
+        for (Tracked state : trackedList) {
+            Animal animal = state.animal;
+            int x = animal.getLocationX();
+            int y = animal.getLocationY();
+            int energy = animal.getCurrentEnergy();
+            byte orientation = (byte) animal.getOrientation().ordinal();
+            if (x == state.x && y == state.y && energy == state.energy && orientation == state.orientation)
+                continue;
+
+            if (!started) {
+                ensure(9);
+                buffer.put(TICK).putLong(tick);
+                started = true;
+            }
+            // Coordinates never leave the panel, so the changes fit in a short
+            ensure(14);
+            buffer.put(DELTA).putInt(state.index).putShort((short) (x - state.x)).putShort((short) (y - state.y))
+                    .putInt(energy - state.energy).put(orientation);
+            state.x = x;
+            state.y = y;
+            state.energy = energy;
+            state.orientation = orientation;
+        }
+    }
+
+    /**
+     * Hands the buffered records to the writer thread, which writes them to the file after the records handed before.
+     * Does not wait for the write.
+     */
+    public synchronized void flush() {
+        if (closed || buffer.position() == 0)
+            return;
+        ByteBuffer full = buffer;
+        ByteBuffer spare = spares.poll();
+        buffer = spare != null ? spare : ByteBuffer.allocateDirect(BUFFER_SIZE);
+        writer.execute(() -> write(full));
+    }
+
+    /**
+     * Writes the buffered records, waits for the writer thread to write everything handed to it, and closes the file.
+     * Later records are ignored.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen())
+            return;
+        flush();
+        closed = true;
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                System.out.println("Journal writer did not finish, closing the journal anyway");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes a full buffer to the file and keeps it as a spare. Runs on the writer thread.
+     * A failed write stops the recording, so a broken journal never slows the race down,
+     * and no later buffer is written.
+     *
+     * @param full The buffer to write, filled from its start.
+     */
+    private void write(ByteBuffer full) {
+        if (!failed) {
+            full.flip();
+            try {
+                while (full.hasRemaining()) {
+                    channel.write(full);
+                }
+            } catch (IOException e) {
+                System.out.println("Journal write failed, recording stopped: " + e.getMessage());
+                failed = true;
+                closed = true;
+            }
+        }
+        full.clear();
+        spares.offer(full);
+    }
+
+    /**
+     * Starts recording an animal, writing its parameters if it is not recorded yet.
+     * Must be called with the journal locked.
+     *
+     * @param animal The animal.
+     * @return The recorded state of the animal.
+     */
+    private Tracked track(Animal animal) {
+        Tracked state = tracked.get(animal);
+        if (state == null) {
+            state = new Tracked(animal, nextIndex++);
+            tracked.put(animal, state);
+            trackedList.add(state);
+            writeAnimal(state);
+        }
+        ++state.tournaments;
+        return state;
+    }
+
+    /**
+     * Writes the parameters and the current state of an animal.
+     * Must be called with the journal locked.
+     *
+     * @param state The recorded state of the animal.
+     */
+    private void writeAnimal(Tracked state) {
+        Animal animal = state.animal;
+        byte[] type = encode(animal.getType());
+        byte[] name = encode(animal.getAnimalName());
+        byte[] category = encode(animal.getCategory());
+        int lane = animal instanceof TerrestrialAnimals ? ((TerrestrialAnimals) animal).getLane() : -1;
+
+        ensure(64 + type.length + name.length + category.length);
+        buffer.put(ANIMAL).putInt(state.index);
+        putString(type);
+        putString(name);
+        putString(category);
+        buffer.putDouble(animal.getSpeed()).putInt(animal.getEnergyPerMeter()).putInt(animal.getMaxEnergy())
+                .putInt(state.energy).putInt(animal.getSize()).putInt(animal.getCompetitionRoute()).putInt(lane)
+                .putInt(state.x).putInt(state.y).put(state.orientation).putDouble(animal.getTotalDistance());
+    }
+
+    /**
+     * Writes a finish of a tournament.
+     *
+     * @param tournament The number of the tournament in the journal session.
+     * @param score      The entry of the finish.
+     */
+    private synchronized void recordFinish(int tournament, ScoreEntry score) {
+        if (closed)
+            return;
+        byte[] name = encode(score.getName());
+        ensure(39 + name.length);
+        buffer.put(FINISH).putInt(tournament).putLong(SimulationEngine.getInstance().getTickCount())
+                .putInt(score.getPlace()).putLong(score.getElapsedNanos()).putLong(score.getDate().getTime());
+        putString(name);
+    }
+
+    /**
+     * Writes the end of a tournament, stops recording its animals and writes the journal to the file.
+     *
+     * @param tournament The number of the tournament in the journal session.
+     * @param members    The recorded animals of the tournament.
+     */
+    private synchronized void recordEnd(int tournament, List<Tracked> members) {
+        if (closed)
+            return;
+        ensure(13);
+        buffer.put(END).putInt(tournament).putLong(SimulationEngine.getInstance().getTickCount());
+        for (Tracked state : members) {
+            if (--state.tournaments == 0) {
+                tracked.remove(state.animal);
+                trackedList.remove(state);
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Makes room in the buffer for a record, handing the buffered records to the writer thread if needed.
+     * Must be called with the journal locked.
+     *
+     * @param bytes The size of the record.
+     */
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes)
+            flush();
+        // A write failed meanwhile: nothing is written any more, so the records are dropped
+        if (buffer.remaining() < bytes)
+            buffer.clear();
+    }
+
+    /**
+     * Encodes a string for the journal, cut to {@value #MAX_STRING_BYTES} bytes.
+     *
+     * @param str The string.
+     * @return The UTF-8 bytes of the string.
+     */
+    private static byte[] encode(String str) {
+        byte[] bytes = (str == null ? "" : str).getBytes(StandardCharsets.UTF_8);
+        return bytes.length > MAX_STRING_BYTES ? Arrays.copyOf(bytes, MAX_STRING_BYTES) : bytes;
+    }
+
+    /**
+     * Writes an encoded string into the buffer.
+     * Must be called with the journal locked.
+     *
+     * @param bytes The UTF-8 bytes of the string.
+     */
+    private void putString(byte[] bytes) {
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+}
@@ -0,0 +1,321 @@
+package Competitions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The tasks of one tournament, run as a unit: the animal threads, the referees and the tournament thread are forked
+ * into the scope, and the owner of the scope waits for all of them at a single join point.
+ * <p>
+ * If a task fails, or the scope is cancelled or times out, every task still running is interrupted,
+ * and {@link #close()} waits until they have all returned. No task of a tournament outlives its scope,
+ * so an animal stuck in a race cannot keep a worker forever.
+ * The tasks run on the {@link TournamentExecutor}, on virtual threads in its virtual mode.
+ * </p>
+ */
+public class TournamentScope implements AutoCloseable {
+
+    /**
+     * State of a task that has not started yet.
+     */
+    private static final int NEW = 0;
+
+    /**
+     * State of a running task.
+     */
+    private static final int RUNNING = 1;
+
+    /**
+     * State of a task that has returned.
+     */
+    private static final int DONE = 2;
+
+    /**
+     * State of a task cancelled before it started.
+     */
+    private static final int CANCELLED = 3;
+
+    /**
+     * The name of the scope, used in messages.
+     */
+    private final String name;
+
+    /**
+     * The forked tasks. Guarded by the scope.
+     */
+    private final List<Subtask> subtasks;
+
+    /**
+     * Number of forked tasks that have not returned yet. Guarded by the scope.
+     */
+    private int running;
+
+    /**
+     * The first failure of a task, or null if no task failed. Guarded by the scope.
+     */
+    private Throwable failure;
+
+    /**
+     * Whether the scope was cancelled. Guarded by the scope.
+     */
+    private boolean cancelled;
+
+    /**
+     * Whether the scope was closed. Guarded by the scope.
+     */
+    private boolean closed;
+
+    /**
+     * Constructs an empty TournamentScope.
+     *
+     * @param name The name of the scope, used in messages.
+     */
+    public TournamentScope(String name) {
+        this.name = name;
+        this.subtasks = new ArrayList<>();
+        this.running = 0;
+        this.failure = null;
+        this.cancelled = false;
+        this.closed = false;
+    }
+
+    /**
+     * Runs a task of the tournament on the {@link TournamentExecutor}.
+     * The task should return promptly when it is interrupted.
+     *
+     * @param task The task to run.
+     * @param taskName The name of the task, used in messages.
+     * @throws IllegalStateException      If the scope is already cancelled or closed.
+     * @throws RejectedExecutionException If the executor has no thread left for the task; the scope is cancelled then.
+     */
+    public void fork(Runnable task, String taskName) {
+        Subtask subtask = new Subtask(task, taskName);
+        synchronized (this) {
+            if (closed || cancelled)
+                throw new IllegalStateException(name + " is " + (closed ? "closed" : "cancelled"));
+            subtasks.add(subtask);
+            ++running;
+        }
+
+        try {
+            TournamentExecutor.getInstance().execute(subtask);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                subtasks.remove(subtask);
+                --running;
+                notifyAll();
+            }
+            cancel();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until every task has returned, a task failed or the deadline passed.
+     * When a task failed or the deadline passed, the other tasks are cancelled.
+     *
+     * @param timeoutNanos The longest time to wait in nanoseconds, or 0 or less to wait without limit.
+     * @throws InterruptedException  If the thread is interrupted while waiting.
+     * @throws ExecutionException    If a task failed; the cause is the failure.
+     * @throws TimeoutException      If the tasks did not all return in time.
+     * @throws CancellationException If the scope was cancelled.
+     */
+    public void join(long timeoutNanos) throws InterruptedException, ExecutionException, TimeoutException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        synchronized (this) {
+            while (running > 0 && failure == null && !cancelled) {
+                if (timeoutNanos <= 0) {
+                    wait();
+                    continue;
+                }
+                long left = deadline - System.nanoTime();
+                if (left <= 0)
+                    break;
+                wait(left / 1_000_000, (int) (left % 1_000_000));
+            }
+        }
+
+        Throwable failed;
+        boolean wasCancelled;
+        boolean finished;
+        synchronized (this) {
+            failed = failure;
+            wasCancelled = cancelled;
+            finished = running == 0;
+        }
+        if (failed != null) {
+            cancel();
+            throw new ExecutionException(name + " failed", failed);
+        }
+        if (wasCancelled)
+            throw new CancellationException(name + " was cancelled");
+        if (!finished) {
+            cancel();
+            throw new TimeoutException(name + " did not end in time");
+        }
+    }
+
+    /**
+     * Cancels the scope: tasks that have not started are skipped and running tasks are interrupted.
+     * Cancelling a scope twice has no further effect.
+     */
+    public void cancel() {
+        List<Subtask> toCancel;
+        synchronized (this) {
+            if (cancelled)
+                return;
+            cancelled = true;
+            toCancel = new ArrayList<>(subtasks);
+            notifyAll();
+        }
+        for (Subtask subtask : toCancel) {
+            subtask.cancel();
+        }
+    }
+
+    /**
+     * Returns whether the scope was cancelled.
+     *
+     * @return true if the scope was cancelled, false otherwise.
+     */
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns the number of tasks that have not returned yet.
+     *
+     * @return The number of running tasks.
+     */
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    /**
+     * Closes the scope: cancels the tasks still running and waits until all of them have returned.
+     * Interrupts while waiting do not stop the wait; the interrupt status is kept.
+     */
+    @Override
+    public void close() {
+        boolean unfinished;
+        synchronized (this) {
+            closed = true;
+            unfinished = running > 0;
+        }
+        if (unfinished)
+            cancel();
+
+        boolean interrupted = false;
+        synchronized (this) {
+            while (running > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Records that a task returned, and its failure if it threw.
+     *
+     * @param error The exception thrown by the task, or null if it returned normally.
+     */
+    private synchronized void finished(Throwable error) {
+        if (error != null && failure == null && !cancelled)
+            failure = error;
+        --running;
+        notifyAll();
+    }
+
+    /**
+     * A task forked into the scope.
+     */
+    private final class Subtask implements Runnable {
+
+        /**
+         * The task to run.
+         */
+        private final Runnable task;
+
+        /**
+         * The name of the task, used in messages.
+         */
+        private final String taskName;
+
+        /**
+         * The state of the task: NEW, RUNNING, DONE or CANCELLED.
+         */
+        private final AtomicInteger state;
+
+        /**
+         * The thread running the task, or null if it is not running. Guarded by the subtask.
+         */
+        private Thread runner;
+
+        /**
+         * Constructs a Subtask.
+         *
+         * @param task     The task to run.
+         * @param taskName The name of the task.
+         */
+        private Subtask(Runnable task, String taskName) {
+            this.task = task;
+            this.taskName = taskName;
+            this.state = new AtomicInteger(NEW);
+            this.runner = null;
+        }
+
+        /**
+         * Runs the task unless it was cancelled, and reports to the scope when it returns.
+         */
+        @Override
+        public void run() {
+            if (!state.compareAndSet(NEW, RUNNING)) {
+                finished(null);
+                return;
+            }
+
+            Throwable error = null;
+            synchronized (this) {
+                runner = Thread.currentThread();
+            }
+            if (isCancelled())
+                Thread.currentThread().interrupt();
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                System.out.println(taskName + " in " + name + " failed: " + e.getMessage());
+                error = e;
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                    state.set(DONE);
+                    // A pooled worker must not carry the interrupt of this tournament into its next task
+                    Thread.interrupted();
+                }
+                finished(error);
+            }
+        }
+
+        /**
+         * Skips the task if it has not started, or interrupts it if it is running.
+         */
+        private void cancel() {
+            if (state.compareAndSet(NEW, CANCELLED))
+                return;
+            synchronized (this) {
+                if (runner != null)
+                    runner.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package Competitions;
+
+import Animals.Animal;
+import Animals.TrackGeometry;
+
+/**
+ * The TournamentSpec class describes a tournament to be run without the competition panels:
+ * whether it is a regular or a courier tournament, and the groups of animals that race in it.
+ * The competition type and the routes come from the animals themselves, as in the panels:
+ * the category of the first animal picks the competition type, and water and air animals race on their competition route.
+ * The tracks come from the {@link TrackGeometry} of the spec, so the animals need no panel; without one,
+ * the animals race on the tracks of their panel.
+ */
+public class TournamentSpec {
+
+    /**
+     * The kind of tournament: 1 for regular, 2 for courier.
+     */
+    private final int regularCourier;
+
+    /**
+     * The groups of animals racing in the tournament, one row per group.
+     */
+    private final Animal[][] groups;
+
+    /**
+     * The tracks the tournament races on, or null to race on the tracks of the panels of the animals.
+     */
+    private final TrackGeometry geometry;
+
+    /**
+     * Constructs a TournamentSpec whose animals race on the tracks of their ZooPanel.
+     * The animals must have a ZooPanel, which gives the size of the tracks, and must not race in another tournament at the same time.
+     *
+     * @param regularCourier The kind of tournament: 1 for regular, 2 for courier.
+     * @param groups         The groups of animals, one row per group. A regular tournament uses the first animal of each group.
+     * @throws IllegalArgumentException If the kind of tournament is unknown or a group is empty.
+     */
+    public TournamentSpec(int regularCourier, Animal[][] groups) {
+        this(regularCourier, groups, null);
+    }
+
+    /**
+     * Constructs a TournamentSpec whose animals race on the given tracks, with or without a ZooPanel.
+     * The animals must not race in another tournament at the same time.
+     *
+     * @param regularCourier The kind of tournament: 1 for regular, 2 for courier.
+     * @param groups         The groups of animals, one row per group. A regular tournament uses the first animal of each group.
+     * @param geometry       The tracks of the tournament, or null to race on the tracks of the panels of the animals.
+     * @throws IllegalArgumentException If the kind of tournament is unknown or a group is empty.
+     */
+    public TournamentSpec(int regularCourier, Animal[][] groups, TrackGeometry geometry) {
+        if (regularCourier != 1 && regularCourier != 2)
+            throw new IllegalArgumentException("Unknown tournament kind: " + regularCourier);
+        if (groups == null || groups.length == 0)
+            throw new IllegalArgumentException("A tournament needs at least one group");
+        for (Animal[] group : groups) {
+            if (group == null || group.length == 0)
+                throw new IllegalArgumentException("A group needs at least one animal");
+        }
+        this.regularCourier = regularCourier;
+        this.groups = groups.clone();
+        this.geometry = geometry;
+    }
+
+    /**
+     * Creates a regular tournament in which every animal races alone.
+     *
+     * @param animals The animals, each one in its own group.
+     * @return The new TournamentSpec.
+     */
+    public static TournamentSpec regular(Animal... animals) {
+        return regular(null, animals);
+    }
+
+    /**
+     * Creates a regular tournament on the given tracks, in which every animal races alone.
+     *
+     * @param geometry The tracks of the tournament, or null to race on the tracks of the panels of the animals.
+     * @param animals  The animals, each one in its own group.
+     * @return The new TournamentSpec.
+     */
+    public static TournamentSpec regular(TrackGeometry geometry, Animal... animals) {
+        Animal[][] groups = new Animal[animals.length][];
+        for (int i = 0; i < animals.length; i++) {
+            groups[i] = new Animal[]{animals[i]};
+        }
+        return new TournamentSpec(1, groups, geometry);
+    }
+
+    /**
+     * Creates a courier tournament with the given groups.
+     *
+     * @param groups The groups of animals, one row per group, in the order they pass the baton.
+     * @return The new TournamentSpec.
+     */
+    public static TournamentSpec courier(Animal[]... groups) {
+        return new TournamentSpec(2, groups);
+    }
+
+    /**
+     * Creates a courier tournament on the given tracks, with the given groups.
+     *
+     * @param geometry The tracks of the tournament, or null to race on the tracks of the panels of the animals.
+     * @param groups   The groups of animals, one row per group, in the order they pass the baton.
+     * @return The new TournamentSpec.
+     */
+    public static TournamentSpec courier(TrackGeometry geometry, Animal[]... groups) {
+        return new TournamentSpec(2, groups, geometry);
+    }
+
+    /**
+     * Creates and starts the tournament, the way the competition panel does.
+     * If the spec has tracks, the animals are moved to the start of their track in it first.
+     *
+     * @return The running tournament.
+     */
+    public Tournament createTournament() {
+        if (geometry != null) {
+            for (Animal[] group : groups) {
+                for (Animal animal : group) {
+                    animal.setTrackGeometry(geometry);
+                    animal.setInitialLocation();
+                }
+            }
+        }
+        if (regularCourier == 2)
+            return new CourierTournament(groups);
+        return new RegularTournament(groups);
+    }
+
+    /**
+     * Returns the kind of tournament.
+     *
+     * @return 1 for regular, 2 for courier.
+     */
+    public int getRegularCourierTournament() {
+        return regularCourier;
+    }
+
+    /**
+     * Returns the tracks the tournament races on.
+     *
+     * @return The track geometry, or null if the animals race on the tracks of their panels.
+     */
+    public TrackGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Returns the number of groups of the tournament.
+     *
+     * @return The number of groups.
+     */
+    public int getGroupCount() {
+        return groups.length;
+    }
+
+    /**
+     * Returns the animals of a group.
+     *
+     * @param group The group, numbered from 0.
+     * @return A copy of the animals of the group.
+     */
+    public Animal[] getGroup(int group) {
+        return groups[group].clone();
+    }
+
+    /**
+     * Returns a string representation of the spec.
+     *
+     * @return A string with the kind of tournament, the category and the number of groups.
+     */
+    @Override
+    public String toString() {
+        return (regularCourier == 2 ? "Courier" : "Regular") + " " + groups[0][0].getCategory()
+                + " tournament, " + groups.length + " groups";
+    }
+}
@@ -1,6 +1,13 @@
 package Competitions;
 
+import Animals.Category;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.lang.Thread.currentThread;
 
@@ -16,9 +23,9 @@ public class TournamentThread implements Runnable {
     private Scores scores;
 
     /**
-     * AtomicBoolean signal used to start the tournament.
+     * Signal released to start the tournament.
      */
-    private AtomicBoolean startSignal;
+    private CountDownLatch startSignal;
 
     /**
      * Number of groups participating in the tournament.
@@ -32,19 +39,33 @@ public class TournamentThread implements Runnable {
     private int competitionType;
 
     /**
-     * Regular courier type. This is currently used as a placeholder for the competition type.
+     * Kind of tournament:
+     * 1 - regular, 2 - courier.
      */
     private int regularCourier;
 
     /**
-     * Static signals for synchronization:
-     * - terrestrialSignal: Used for synchronization in terrestrial competitions.
-     * - airSignal: Array of AtomicBoolean for air competition routes.
-     * - waterSignal: Array of AtomicBoolean for water competition routes.
+     * System property setting the number of terrestrial lanes, the number of terrestrial tournaments that can run at once.
+     */
+    public static final String TERRESTRIAL_LANES_PROPERTY = "zoo.terrestrial.lanes";
+
+    /**
+     * The lanes of the terrestrial competitions, shared by all terrestrial tournaments.
      */
-    private static AtomicBoolean terrestrialSignal = new AtomicBoolean(true);
-    private static AtomicBoolean[] airSignal = null;
-    private static AtomicBoolean[] waterSignal = null;
+    private static final RouteLockManager terrestrialLanes = new RouteLockManager(Category.TERRESTRIAL.getName(),
+            Math.max(1, Integer.getInteger(TERRESTRIAL_LANES_PROPERTY, Category.TERRESTRIAL.getRouteCapacity())));
+
+    /**
+     * The routes of the air competitions, shared by all air tournaments.
+     */
+    private static final RouteLockManager airRoutes = new RouteLockManager(Category.AIR.getName(),
+            Category.AIR.getRouteCapacity());
+
+    /**
+     * The routes of the water competitions, shared by all water tournaments.
+     */
+    private static final RouteLockManager waterRoutes = new RouteLockManager(Category.WATER.getName(),
+            Category.WATER.getRouteCapacity());
 
     /**
      * Tournament routes:
@@ -52,74 +73,116 @@ public class TournamentThread implements Runnable {
      */
     private AtomicBoolean[] tournamentRouts = new AtomicBoolean[5];
 
+    /**
+     * The lane the tournament reserved and did not ask for yet, -1 once asked for, or null if it reserved none.
+     * Shared with the {@link Tournament}, which cancels the reservation if the thread never asks for the lane.
+     */
+    private AtomicInteger reservedLane;
+
+    /**
+     * Completed with the scores when the tournament is over.
+     */
+    private final CompletableFuture<Scores> completion = new CompletableFuture<>();
+
     /**
      * Constructs a TournamentThread with the specified parameters.
-     * Initializes the signals for air and water competitions if they are null.
      *
      * @param scores The Scores object to keep track of the scores.
-     * @param startSignal The signal to start the tournament.
+     * @param startSignal The signal released to start the tournament.
      * @param groups The number of groups participating in the tournament.
      * @param competitionType The type of competition (1 for water, 2 for air, 3 for terrestrial).
      * @param regularCourier The type of regular courier.
      * @param tournamentRouts Array of AtomicBoolean representing the routes for the tournament.
      */
-    public TournamentThread(Scores scores, AtomicBoolean startSignal, int groups, int competitionType, int regularCourier, AtomicBoolean[] tournamentRouts) {
+    public TournamentThread(Scores scores, CountDownLatch startSignal, int groups, int competitionType, int regularCourier, AtomicBoolean[] tournamentRouts) {
         this.scores = scores;
         this.startSignal = startSignal;
         this.groups = groups;
         this.competitionType = competitionType;
-        this.regularCourier = competitionType;
+        this.regularCourier = regularCourier;
         this.tournamentRouts = tournamentRouts;
-
-        // Initialize airSignal array if it's null
-        if (airSignal == null) {
-            airSignal = new AtomicBoolean[5];
-            for (int i = 0; i < 5; i++) {
-                airSignal[i] = new AtomicBoolean(true);
-            }
-        }
-
-        // Initialize waterSignal array if it's null
-        if (waterSignal == null) {
-            waterSignal = new AtomicBoolean[4];
-            for (int i = 0; i < 4; i++) {
-                waterSignal[i] = new AtomicBoolean(true);
-            }
-        }
     }
 
     /**
      * Alternative constructor to create a TournamentThread with only scores and groups.
-     * Initializes the startSignal to false.
+     * Creates a start signal of its own, not released yet.
      *
      * @param scores The Scores object to keep track of the scores.
      * @param groups The number of groups participating in the tournament.
      */
     public TournamentThread(Scores scores, int groups) {
         this.scores = scores;
-        this.startSignal = new AtomicBoolean(false);
+        this.startSignal = new CountDownLatch(1);
         this.groups = groups;
     }
 
+    /**
+     * Sets the lane reserved for the tournament. Asking for the routes takes the reservation over.
+     *
+     * @param reservedLane The reserved lane, shared with the tournament.
+     */
+    void setReservedLane(AtomicInteger reservedLane) {
+        this.reservedLane = reservedLane;
+    }
+
     /**
      * Runs the tournament based on the competition type.
      * Depending on the competition type, it delegates to the appropriate method.
+     * Completes the {@link #getCompletion() completion} of the tournament when it is over,
+     * or with a {@link CancellationException} if the thread is interrupted because the tournament was aborted.
      */
     public void run() {
-        switch (competitionType) {
-            case 1:
-                runWaterTournament();
-                break;
-            case 2:
-                runAirTournament();
-                break;
-            case 3:
-                runTerrestrialTournament();
-                break;
-            default:
+        try {
+            switch (competitionType) {
+                case 1:
+                    runWaterTournament();
+                    break;
+                case 2:
+                    runAirTournament();
+                    break;
+                case 3:
+                    runTerrestrialTournament();
+                    break;
+                default:
+            }
+            completion.complete(scores);
+        } catch (InterruptedException e) {
+            completion.completeExceptionally(new CancellationException("Tournament aborted"));
+            currentThread().interrupt();
+        } catch (RuntimeException e) {
+            completion.completeExceptionally(e);
+            throw e;
         }
     }
 
+    /**
+     * Gets the type of competition of the tournament.
+     *
+     * @return 1 for water, 2 for air, 3 for terrestrial, or 0 if unknown.
+     */
+    public int getCompetitionType() {
+        return competitionType;
+    }
+
+    /**
+     * Gets the kind of tournament.
+     *
+     * @return 1 for regular, 2 for courier, or 0 if unknown.
+     */
+    public int getRegularCourier() {
+        return regularCourier;
+    }
+
+    /**
+     * Returns a future completed with the scores when the tournament is over,
+     * that is when every group finished and the routes of the tournament were released.
+     *
+     * @return The completion of the tournament.
+     */
+    public CompletableFuture<Scores> getCompletion() {
+        return completion;
+    }
+
     /**
      * Gets the Scores object associated with this tournament.
      *
@@ -131,138 +194,105 @@ public class TournamentThread implements Runnable {
 
     /**
      * Runs a generic tournament process.
-     * Waits until all scores are collected and then processes the results.
+     * Releases the start signal and waits until all scores are collected.
+     * The finishes are counted by a listener of the scores, registered before the start so that none is missed.
+     *
+     * @throws InterruptedException If the thread is interrupted before all the scores are collected.
      */
-    private void runTournament() {
-
-        synchronized (startSignal) {
-            this.startSignal.set(true);
-            startSignal.notifyAll();
-        }
-
-        synchronized (scores) {
-            while (scores.getAll().size() < groups) {
-                try {
-                    scores.wait();
-                } catch (InterruptedException e) {
-                    System.out.println(e.getMessage());
-                }
-            }
+    private void runTournament() throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(Math.max(0, groups - scores.size()));
+        IScoreListener listener = score -> finished.countDown();
+        scores.addListener(listener);
+        try {
+            startSignal.countDown();
+            finished.await();
+        } finally {
+            scores.removeListener(listener);
         }
     }
 
     /**
      * Runs the terrestrial tournament.
-     * Handles synchronization and signaling for terrestrial competitions.
+     * Waits until the lane of the tournament is free; tournaments on other lanes run at the same time.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting or racing.
      */
-    private void runTerrestrialTournament() {
-        synchronized (terrestrialSignal) {
-            while (!terrestrialSignal.get()) {
-                try {
-                    terrestrialSignal.wait();
-                } catch (InterruptedException e) {
-                    System.out.println(e.getMessage());
-                }
-            }
-            terrestrialSignal.set(false);
-        }
-
-        runTournament();
-
-        terrestrialSignal.set(true);
-        synchronized (terrestrialSignal) {
-            terrestrialSignal.notifyAll();
-        }
+    private void runTerrestrialTournament() throws InterruptedException {
+        runOnRoutes(terrestrialLanes);
     }
 
     /**
      * Runs the air tournament.
-     * Handles synchronization and signaling for air competitions.
+     * Waits until all the air routes of the tournament are free.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting or racing.
      */
-    private void runAirTournament() {
-        synchronized (this) {
-            while (!checkRoutsAvailability(2)) {
-                try {
-                    this.wait();
-                } catch (InterruptedException e) {
-                    System.out.println(e.getMessage());
-                }
-            }
-            for (int i = 0; i < tournamentRouts.length; i++) {
-                if (tournamentRouts[i].get()) {
-                    airSignal[i].set(false);
-                }
-            }
-        }
-        runTournament();
-
-        for (int i = 0; i < tournamentRouts.length; i++) {
-            if (tournamentRouts[i].get()) {
-                airSignal[i].set(true);
-            }
-        }
-        synchronized (this) {
-            this.notifyAll();
-        }
-
+    private void runAirTournament() throws InterruptedException {
+        runOnRoutes(airRoutes);
     }
 
     /**
      * Runs the water tournament.
-     * Handles synchronization and signaling for water competitions.
+     * Waits until all the water routes of the tournament are free.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting or racing.
      */
-    private void runWaterTournament() {
-        synchronized (this) {
-            while (!checkRoutsAvailability(1)) {
-                try {
-                    this.wait();
-                } catch (InterruptedException e) {
-                    System.out.println(e.getMessage());
-                }
-            }
-            for (int i = 0; i < tournamentRouts.length; i++) {
-                if (tournamentRouts[i].get()) {
-                    waterSignal[i].set(false);
-                }
-            }
+    private void runWaterTournament() throws InterruptedException {
+        runOnRoutes(waterRoutes);
+    }
+
+    /**
+     * Acquires all the routes of the tournament at once, runs the tournament and releases the routes,
+     * which wakes up the tournaments waiting for them.
+     *
+     * @param routes The routes of the competition area.
+     * @throws InterruptedException If the thread is interrupted while waiting or racing; the routes are not held then.
+     */
+    private void runOnRoutes(RouteLockManager routes) throws InterruptedException {
+        int[] used = getUsedRoutes(routes.getRouteCount());
+        if (reservedLane != null)
+            reservedLane.set(-1); // Acquiring the lane drops its reservation
+        routes.acquire(used);
+        try {
+            runTournament();
+        } finally {
+            routes.release(used);
         }
-        runTournament();
+    }
 
-        for (int i = 0; i < tournamentRouts.length; i++) {
+    /**
+     * Returns the routes the tournament races on.
+     *
+     * @param routeCount The number of routes of the competition area.
+     * @return The used routes, numbered from 0.
+     */
+    private int[] getUsedRoutes(int routeCount) {
+        int count = 0;
+        int[] used = new int[routeCount];
+        for (int i = 0; i < routeCount && i < tournamentRouts.length; i++) {
             if (tournamentRouts[i].get()) {
-                waterSignal[i].set(true);
+                used[count++] = i;
             }
         }
-        synchronized (this) {
-            this.notifyAll();
-        }
-
+        return Arrays.copyOf(used, count);
     }
 
     /**
-     * Checks the availability of routes for a given competition type.
+     * Returns the route lock manager of a competition type, with its wait-time statistics.
      *
-     * @param competitionType The type of competition (1 for water, 2 for air).
-     * @return True if all routes are available, false otherwise.
+     * @param competitionType The type of competition (1 for water, 2 for air, 3 for terrestrial lanes).
+     * @return The route lock manager, or null if the competition type has no routes.
      */
-    private boolean checkRoutsAvailability(int competitionType) {
+    public static RouteLockManager getRouteLocks(int competitionType) {
         switch (competitionType) {
             case 1:
-                for (int i = 0; i < waterSignal.length; ++i) {
-                    if (tournamentRouts[i].get() && !waterSignal[i].get()) {
-                        return false;
-                    }
-                }
-                return true;
+                return waterRoutes;
             case 2:
-                for (int i = 0; i < airSignal.length; ++i) {
-                    if (tournamentRouts[i].get() && !airSignal[i].get()) {
-                        return false;
-                    }
-                }
-                return true;
+                return airRoutes;
+            case 3:
+                return terrestrialLanes;
             default:
-                return false;
+                return null;
         }
     }
 }
@@ -0,0 +1,213 @@
+package Graphics;
+
+import javax.swing.JPopupMenu;
+import javax.swing.ToolTipManager;
+import java.awt.Canvas;
+import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A canvas that draws the zoo on its own render thread, independently of the event dispatch thread.
+ * The render thread composites the background and the animals of the last published snapshot into the back buffer
+ * of a {@link BufferStrategy} and flips it, at most {@value #FPS_PROPERTY} frames per second.
+ * The race keeps moving on the screen while the event dispatch thread is busy, for example behind a modal dialog.
+ * <p>
+ * Active rendering is off by default and is enabled with the system property {@value #ENABLED_PROPERTY}.
+ * It is never used in a headless environment. The canvas covers its {@link ZooPanel}, which then paints nothing itself.
+ * </p>
+ */
+public class ActiveRenderer extends Canvas implements Runnable {
+
+    /**
+     * System property enabling active rendering.
+     */
+    public static final String ENABLED_PROPERTY = "zoo.render.active";
+
+    /**
+     * System property setting the maximum number of frames per second.
+     */
+    public static final String FPS_PROPERTY = "zoo.render.fps";
+
+    /**
+     * Default maximum number of frames per second.
+     */
+    private static final int DEFAULT_FPS = 60;
+
+    /**
+     * Number of buffers of the buffer strategy: the front buffer and one back buffer.
+     */
+    private static final int BUFFERS = 2;
+
+    /**
+     * The panel whose zoo is drawn.
+     */
+    private final ZooPanel zooPanel;
+
+    /**
+     * Length of a frame in nanoseconds.
+     */
+    private final long frameNanos;
+
+    /**
+     * The render thread, or null if the canvas is not displayable.
+     */
+    private volatile Thread renderThread;
+
+    /**
+     * Number of frames shown since the canvas was created.
+     */
+    private volatile long frameCount;
+
+    /**
+     * Constructs an ActiveRenderer for a panel.
+     * Swing popups are made heavyweight, so menus and tooltips still show above the canvas.
+     *
+     * @param zooPanel The panel whose zoo is drawn.
+     */
+    public ActiveRenderer(ZooPanel zooPanel) {
+        this.zooPanel = zooPanel;
+        this.frameNanos = 1_000_000_000L / Math.max(1, Integer.getInteger(FPS_PROPERTY, DEFAULT_FPS));
+        this.renderThread = null;
+        this.frameCount = 0;
+        setIgnoreRepaint(true);
+        JPopupMenu.setDefaultLightWeightPopupEnabled(false);
+        ToolTipManager.sharedInstance().setLightWeightPopupEnabled(false);
+    }
+
+    /**
+     * Returns the length of a frame.
+     *
+     * @return The length of a frame in nanoseconds, from the maximum number of frames per second.
+     */
+    public long getFrameNanos() {
+        return frameNanos;
+    }
+
+    /**
+     * Returns whether active rendering is enabled.
+     *
+     * @return true if the property {@value #ENABLED_PROPERTY} is true and the environment has a display, false otherwise.
+     */
+    public static boolean isActiveRenderingEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY) && !GraphicsEnvironment.isHeadless();
+    }
+
+    /**
+     * Starts the render thread once the canvas can be drawn on the screen.
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        Thread thread = new Thread(this, "zoo-renderer");
+        thread.setDaemon(true);
+        renderThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the render thread before the canvas leaves the screen, and waits for it.
+     */
+    @Override
+    public void removeNotify() {
+        Thread thread = renderThread;
+        renderThread = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        super.removeNotify();
+    }
+
+    /**
+     * Does nothing: the canvas is drawn by the render thread only.
+     *
+     * @param g The graphics context.
+     */
+    @Override
+    public void paint(Graphics g) {
+    }
+
+    /**
+     * Does nothing: the canvas is drawn by the render thread only.
+     *
+     * @param g The graphics context.
+     */
+    @Override
+    public void update(Graphics g) {
+    }
+
+    /**
+     * Returns the number of frames shown.
+     *
+     * @return The frame count.
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * The render loop. Draws and shows a frame, then waits for the next frame, until the canvas leaves the screen.
+     */
+    @Override
+    public void run() {
+        long nextFrame = System.nanoTime();
+        while (renderThread == Thread.currentThread()) {
+            try {
+                renderFrame();
+            } catch (IllegalStateException e) {
+                // The peer went away between two frames; removeNotify ends the loop
+                System.out.println(e.getMessage());
+            }
+
+            nextFrame += frameNanos;
+            long now = System.nanoTime();
+            if (now - nextFrame > frameNanos)
+                nextFrame = now;
+            else
+                LockSupport.parkNanos(this, nextFrame - now);
+        }
+    }
+
+    /**
+     * Draws one frame into the back buffer and shows it, drawing again if the buffer contents were lost.
+     */
+    private void renderFrame() {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0 || !isDisplayable())
+            return;
+
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy == null) {
+            createBufferStrategy(BUFFERS);
+            return;
+        }
+
+        zooPanel.publishIfQuiet(frameNanos);
+        Rectangle area = new Rectangle(0, 0, width, height);
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    g.setColor(zooPanel.getBackground());
+                    g.fillRect(0, 0, width, height);
+                    zooPanel.paintScene(g, area);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+
+        Toolkit.getDefaultToolkit().sync();
+        ++frameCount;
+    }
+}
@@ -432,13 +432,7 @@ public class AddAnimalDialog extends JDialog{
      * @return {@code true} if the animal name exists; {@code false} otherwise.
      */
     private boolean isAnimalNameExists(ZooPanel panel, String animalName){
-        if (panel.getPlayers() == null)
-            return false;
-        int playersLen = panel.getPlayers().length;
-        for (int i=0; i<playersLen; ++i)
-            if (panel.getPlayers()[i].getAnimalName().equals(animalName))
-                return true;
-        return false;
+        return panel.findAnimal(animalName) != null;
     }
 
     /**
@@ -9,6 +9,7 @@ import javax.swing.border.TitledBorder;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.nio.file.Paths;
 
 /**
  * Submitted by:
@@ -568,10 +569,11 @@ public class CompetitionFrame extends JFrame {
     }
 
     /**
-     * Frees up memory by clearing resources and setting the zooPanel to null.
+     * Frees up memory by clearing resources, closing the zooPanel and setting it to null.
      */
     public void freeMemory() {
         clear();
+        zooPanel.close();
         zooPanel = null;
     }
 
@@ -600,6 +602,7 @@ public class CompetitionFrame extends JFrame {
      * The main entry point of the application.
      * Initializes and displays the main window of the application by creating
      * an instance of CompetitionFrame and setting it visible.
+     * If the system property {@value JournalReplay#PATH_PROPERTY} names a tournament journal, the journal is replayed on the zoo panel.
      *
      * @param args Command-line arguments (not used).
      */
@@ -608,6 +611,13 @@ public class CompetitionFrame extends JFrame {
         SwingUtilities.invokeLater(() -> {
             CompetitionFrame frame = new CompetitionFrame();
             frame.setVisible(true);
+
+            // Replay a tournament journal instead of waiting for new competitions
+            String journal = System.getProperty(JournalReplay.PATH_PROPERTY);
+            if (journal != null) {
+                double speed = Double.parseDouble(System.getProperty(JournalReplay.SPEED_PROPERTY, "1"));
+                new JournalReplay(Paths.get(journal), frame.zooPanel, speed).start();
+            }
         });
     }
 }
\ No newline at end of file
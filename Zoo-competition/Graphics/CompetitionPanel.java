@@ -189,19 +189,9 @@ public class CompetitionPanel extends JPanel {
         while (animalButtons.hasMoreElements()) {
             AbstractButton button = animalButtons.nextElement();
             if (button.isSelected()) {
-                switch (button.getText()) {
-                    case "Air":
-                        selectedAnimalType = 2; // Air
-                        break;
-                    case "Water":
-                        selectedAnimalType = 1; // Water
-                        break;
-                    case "Terrestrial":
-                        selectedAnimalType = 3; // Terrestrial
-                        break;
-                    case "Terrestrial+Water":
-                        selectedAnimalType = 1;
-                }
+                Category category = Category.fromName(button.getText());
+                if (category != null)
+                    selectedAnimalType = category.getCompetitionType();
                 break;
             }
         }
@@ -0,0 +1,647 @@
+package Graphics;
+
+import Animals.Alligator;
+import Animals.Animal;
+import Animals.Cat;
+import Animals.Dog;
+import Animals.Dolphin;
+import Animals.Eagle;
+import Animals.Orientation;
+import Animals.Pigeon;
+import Animals.Snake;
+import Animals.TerrestrialAnimals;
+import Animals.Whale;
+import Competitions.ScoreEntry;
+import Competitions.TournamentJournal;
+import Mobility.Point;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Class that plays a {@link TournamentJournal} back on a {@link ZooPanel}.
+ * The animals of the journal are recreated on the panel and moved tick by tick exactly as they moved in the recorded races,
+ * at any speed: 1 plays the races in real time, 10 ten times faster, and 0 as fast as the journal can be read.
+ * The finishes of the journal are collected per tournament, with their recorded places and times.
+ * As in a live race, the animals of a running tournament are unavailable, which is what the panel draws.
+ * <p>
+ * Replay starts from the frame when the system property {@value #PATH_PROPERTY} names a journal,
+ * at the speed given by {@value #SPEED_PROPERTY}.
+ * </p>
+ */
+public class JournalReplay implements Runnable {
+
+    /**
+     * System property holding the path of the journal to replay when the frame starts.
+     */
+    public static final String PATH_PROPERTY = "zoo.replay";
+
+    /**
+     * System property holding the speed of the replay started with the frame.
+     */
+    public static final String SPEED_PROPERTY = "zoo.replay.speed";
+
+    /**
+     * Size of the read buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The orientations, indexed by the ordinals written in the journal.
+     */
+    private static final Orientation[] ORIENTATIONS = Orientation.values();
+
+    /**
+     * The journal file.
+     */
+    private final Path path;
+
+    /**
+     * The panel the animals are drawn on.
+     */
+    private final ZooPanel panel;
+
+    /**
+     * The speed of the replay relative to real time, or 0 for as fast as possible.
+     */
+    private volatile double speed;
+
+    /**
+     * Whether the replay was asked to stop.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * The last replayed tick of the current session.
+     */
+    private volatile long tick;
+
+    /**
+     * The thread running the replay, or null if it was not started.
+     */
+    private Thread thread;
+
+    /**
+     * The length of a tick of the current session, in nanoseconds.
+     */
+    private long tickNanos;
+
+    /**
+     * The tick the pacing is measured from, or -1 to measure from the next tick.
+     */
+    private long anchorTick;
+
+    /**
+     * The {@link System#nanoTime()} stamp of {@link #anchorTick}.
+     */
+    private long anchorNanos;
+
+    /**
+     * The speed the pacing anchor was taken at.
+     */
+    private double anchorSpeed;
+
+    /**
+     * The animals of the current session, by journal index.
+     */
+    private final List<Animal> animals;
+
+    /**
+     * Number of running tournaments of the animals of the current session, by journal index.
+     */
+    private final List<Integer> running;
+
+    /**
+     * The animals whose tournaments are over, by type and name, ready to be reused by a later tournament.
+     */
+    private final Map<String, Animal> idle;
+
+    /**
+     * The energy of the replayed animals.
+     */
+    private final IdentityHashMap<Animal, Integer> energies;
+
+    /**
+     * The journal indexes of the animals of the running tournaments, by tournament number in the current session.
+     */
+    private final Map<Integer, int[]> members;
+
+    /**
+     * The replay-wide number of the tournaments of the current session, by tournament number in the session.
+     */
+    private final Map<Integer, Integer> tournamentNumbers;
+
+    /**
+     * The finishes of every replayed tournament, by replay-wide tournament number.
+     */
+    private final List<List<ScoreEntry>> results;
+
+    /**
+     * Constructs a JournalReplay.
+     *
+     * @param path  The journal file.
+     * @param panel The panel the animals are drawn on. Its current players are replaced by the animals of the journal.
+     * @param speed The speed of the replay relative to real time, or 0 for as fast as possible.
+     */
+    public JournalReplay(Path path, ZooPanel panel, double speed) {
+        this.path = path;
+        this.panel = panel;
+        this.speed = Math.max(0, speed);
+        this.stopped = false;
+        this.tick = 0;
+        this.animals = new ArrayList<>();
+        this.running = new ArrayList<>();
+        this.idle = new HashMap<>();
+        this.energies = new IdentityHashMap<>();
+        this.members = new HashMap<>();
+        this.tournamentNumbers = new HashMap<>();
+        this.results = new ArrayList<>();
+    }
+
+    /**
+     * Starts the replay on a new thread.
+     */
+    public synchronized void start() {
+        if (thread != null)
+            return;
+        thread = new Thread(this, "journal-replay");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the replay. The animals stay where the replay left them.
+     */
+    public void stop() {
+        stopped = true;
+        Thread replayThread = thread;
+        if (replayThread != null)
+            LockSupport.unpark(replayThread);
+    }
+
+    /**
+     * Waits until the replay reaches the end of the journal or is stopped.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void join() throws InterruptedException {
+        Thread replayThread;
+        synchronized (this) {
+            replayThread = thread;
+        }
+        if (replayThread != null)
+            replayThread.join();
+    }
+
+    /**
+     * Changes the speed of the replay.
+     *
+     * @param speed The speed relative to real time, or 0 for as fast as possible.
+     */
+    public void setSpeed(double speed) {
+        this.speed = Math.max(0, speed);
+    }
+
+    /**
+     * Returns the speed of the replay.
+     *
+     * @return The speed relative to real time, or 0 for as fast as possible.
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Returns the last replayed tick of the current session.
+     *
+     * @return The tick number.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Returns the number of tournaments replayed so far.
+     *
+     * @return The number of tournaments.
+     */
+    public synchronized int getTournamentCount() {
+        return results.size();
+    }
+
+    /**
+     * Returns the finishes of a replayed tournament, with the places and times of the journal.
+     *
+     * @param tournament The tournament, numbered from 0 in replay order.
+     * @return A new list of the finishes replayed so far, first place first.
+     */
+    public synchronized List<ScoreEntry> getResults(int tournament) {
+        return new ArrayList<>(results.get(tournament));
+    }
+
+    /**
+     * Returns the energy of a replayed animal.
+     *
+     * @param animal An animal of the replay.
+     * @return The energy of the animal at the last replayed tick, or 0 if it is not an animal of the replay.
+     */
+    public synchronized int getEnergy(Animal animal) {
+        Integer energy = energies.get(animal);
+        return energy == null ? 0 : energy;
+    }
+
+    /**
+     * Reads the journal and applies its records to the panel, pacing the ticks by the speed of the replay.
+     * At the end of the journal, the animals of tournaments whose end was not recorded are made available again.
+     */
+    @Override
+    public void run() {
+        panel.setPlayers(new Animal[0]);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.flip();
+            while (!stopped && fill(channel, buffer, 1)) {
+                byte type = buffer.get();
+                switch (type) {
+                    case TournamentJournal.SESSION:
+                        readSession(channel, buffer);
+                        break;
+                    case TournamentJournal.ANIMAL:
+                        readAnimal(channel, buffer);
+                        break;
+                    case TournamentJournal.TOURNAMENT:
+                        readTournament(channel, buffer);
+                        break;
+                    case TournamentJournal.TICK:
+                        need(channel, buffer, 8);
+                        pace(buffer.getLong());
+                        break;
+                    case TournamentJournal.DELTA:
+                        readDelta(channel, buffer);
+                        break;
+                    case TournamentJournal.FINISH:
+                        readFinish(channel, buffer);
+                        break;
+                    case TournamentJournal.END:
+                        readEnd(channel, buffer);
+                        break;
+                    default:
+                        throw new IOException("Unknown record type " + type);
+                }
+            }
+            if (!stopped)
+                releaseRunning();
+        } catch (EOFException e) {
+            System.out.println("Journal " + path + " ends with a partial record");
+            releaseRunning();
+        } catch (IOException e) {
+            System.out.println("Cannot replay " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a new session: checks the header and forgets the animals of the previous session.
+     * Animals whose tournaments did not end in the previous session are made available again.
+     *
+     * @param channel The journal file.
+     * @param buffer  The read buffer.
+     * @throws IOException If the header is not a journal header or cannot be read.
+     */
+    private synchronized void readSession(FileChannel channel, ByteBuffer buffer) throws IOException {
+        need(channel, buffer, 22);
+        if (buffer.getInt() != TournamentJournal.MAGIC)
+            throw new IOException("Not a tournament journal");
+        short version = buffer.getShort();
+        if (version != TournamentJournal.VERSION)
+            throw new IOException("Unsupported journal version " + version);
+        tickNanos = buffer.getLong();
+        buffer.getLong();
+
+        releaseRunning();
+        for (Animal animal : animals) {
+            if (animal != null)
+                idle.put(getKey(animal), animal);
+        }
+        animals.clear();
+        running.clear();
+        members.clear();
+        tournamentNumbers.clear();
+        anchorTick = -1;
+        tick = 0;
+    }
+
+    /**
+     * Recreates an animal of the journal on the panel, or moves back an animal whose tournament is over.
+     *
+     * @param channel The journal file.
+     * @param buffer  The read buffer.
+     * @throws IOException If the record cannot be read.
+     */
+    private void readAnimal(FileChannel channel, ByteBuffer buffer) throws IOException {
+        need(channel, buffer, 4);
+        int index = buffer.getInt();
+        String type = getString(channel, buffer);
+        String name = getString(channel, buffer);
+        getString(channel, buffer);
+        need(channel, buffer, 49);
+        double speed = buffer.getDouble();
+        int energyPerMeter = buffer.getInt();
+        int maxEnergy = buffer.getInt();
+        int energy = buffer.getInt();
+        buffer.getInt();
+        int route = buffer.getInt();
+        int lane = buffer.getInt();
+        int x = buffer.getInt();
+        int y = buffer.getInt();
+        Orientation orientation = ORIENTATIONS[buffer.get()];
+        buffer.getDouble();
+
+        Animal animal;
+        boolean added = false;
+        synchronized (this) {
+            animal = idle.remove(type + "/" + name);
+            if (animal == null) {
+                animal = createAnimal(type, name, (int) speed, energyPerMeter, maxEnergy, route);
+                added = true;
+            }
+            while (animals.size() <= index) {
+                animals.add(null);
+                running.add(0);
+            }
+            animals.set(index, animal);
+            energies.put(animal, energy);
+        }
+        if (animal instanceof TerrestrialAnimals && lane >= 0)
+            ((TerrestrialAnimals) animal).setLane(lane);
+        animal.setLocation(new Point(x, y));
+        animal.setOrientation(orientation);
+        if (added)
+            panel.addAnimalToCompetition(animal);
+    }
+
+    /**
+     * Registers a tournament and marks its animals unavailable, so the panel draws them while they race.
+     *
+     * @param channel The journal file.
+     * @param buffer  The read buffer.
+     * @throws IOException If the record cannot be read.
+     */
+    private void readTournament(FileChannel channel, ByteBuffer buffer) throws IOException {
+        need(channel, buffer, 18);
+        int tournament = buffer.getInt();
+        buffer.getLong();
+        buffer.get();
+        buffer.get();
+        int groups = buffer.getInt();
+        List<Integer> indexes = new ArrayList<>();
+        for (int group = 0; group < groups; group++) {
+            need(channel, buffer, 4);
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                need(channel, buffer, 4);
+                indexes.add(buffer.getInt());
+            }
+        }
+
+        synchronized (this) {
+            int[] tournamentMembers = new int[indexes.size()];
+            for (int i = 0; i < tournamentMembers.length; i++) {
+                tournamentMembers[i] = indexes.get(i);
+                running.set(tournamentMembers[i], running.get(tournamentMembers[i]) + 1);
+            }
+            members.put(tournament, tournamentMembers);
+            tournamentNumbers.put(tournament, results.size());
+            results.add(new ArrayList<>());
+        }
+        for (int index : indexes) {
+            getAnimal(index).setIsAvailable(false);
+        }
+    }
+
+    /**
+     * Applies the change of one animal during the current tick.
+     *
+     * @param channel The journal file.
+     * @param buffer  The read buffer.
+     * @throws IOException If the record cannot be read.
+     */
+    private void readDelta(FileChannel channel, ByteBuffer buffer) throws IOException {
+        need(channel, buffer, 13);
+        int index = buffer.getInt();
+        short dx = buffer.getShort();
+        short dy = buffer.getShort();
+        int energy = buffer.getInt();
+        Orientation orientation = ORIENTATIONS[buffer.get()];
+
+        Animal animal;
+        synchronized (this) {
+            animal = animals.get(index);
+            energies.merge(animal, energy, Integer::sum);
+        }
+        animal.moveBy(dx, dy);
+        animal.setOrientation(orientation);
+    }
+
+    /**
+     * Records a finish of a tournament.
+     *
+     * @param channel The journal file.
+     * @param buffer  The read buffer.
+     * @throws IOException If the record cannot be read.
+     */
+    private void readFinish(FileChannel channel, ByteBuffer buffer) throws IOException {
+        need(channel, buffer, 32);
+        int tournament = buffer.getInt();
+        buffer.getLong();
+        int place = buffer.getInt();
+        long elapsedNanos = buffer.getLong();
+        long dateMillis = buffer.getLong();
+        String name = getString(channel, buffer);
+
+        synchronized (this) {
+            Integer number = tournamentNumbers.get(tournament);
+            if (number != null)
+                results.get(number).add(new ScoreEntry(name, place, elapsedNanos, elapsedNanos, new Date(dateMillis)));
+        }
+    }
+
+    /**
+     * Ends a tournament; its animals may be reused by a later tournament of the journal.
+     * An animal that races in no other tournament becomes available again.
+     *
+     * @param channel The journal file.
+     * @param buffer  The read buffer.
+     * @throws IOException If the record cannot be read.
+     */
+    private synchronized void readEnd(FileChannel channel, ByteBuffer buffer) throws IOException {
+        need(channel, buffer, 12);
+        int[] tournamentMembers = members.remove(buffer.getInt());
+        buffer.getLong();
+        if (tournamentMembers == null)
+            return;
+        for (int index : tournamentMembers) {
+            int count = running.get(index) - 1;
+            running.set(index, count);
+            if (count == 0) {
+                idle.put(getKey(animals.get(index)), animals.get(index));
+                animals.get(index).setIsAvailable(true);
+            }
+        }
+    }
+
+    /**
+     * Makes the animals of the tournaments still running in the current session available again,
+     * for a session or a journal that ends before their tournaments end.
+     */
+    private synchronized void releaseRunning() {
+        for (int index = 0; index < animals.size(); index++) {
+            if (running.get(index) > 0) {
+                running.set(index, 0);
+                animals.get(index).setIsAvailable(true);
+            }
+        }
+        members.clear();
+    }
+
+    /**
+     * Returns an animal of the current session.
+     *
+     * @param index The journal index of the animal.
+     * @return The animal.
+     */
+    private synchronized Animal getAnimal(int index) {
+        return animals.get(index);
+    }
+
+    /**
+     * Waits until a tick is due at the speed of the replay.
+     *
+     * @param next The tick about to be replayed.
+     */
+    private void pace(long next) {
+        double currentSpeed = speed;
+        if (currentSpeed > 0) {
+            if (anchorTick < 0 || currentSpeed != anchorSpeed || next < anchorTick) {
+                anchorTick = next;
+                anchorNanos = System.nanoTime();
+                anchorSpeed = currentSpeed;
+            }
+            long due = anchorNanos + (long) ((next - anchorTick) * tickNanos / currentSpeed);
+            long now;
+            while (!stopped && speed == currentSpeed && (now = System.nanoTime()) < due) {
+                LockSupport.parkNanos(this, due - now);
+            }
+        }
+        tick = next;
+    }
+
+    /**
+     * Creates an animal of the given type on the panel.
+     *
+     * @param type           The type of the animal, as returned by {@link Animal#getType()}.
+     * @param name           The name of the animal.
+     * @param speed          The speed of the animal.
+     * @param energyPerMeter The energy the animal consumes per meter.
+     * @param maxEnergy      The maximum energy of the animal.
+     * @param route          The competition route of the animal, for water and air animals.
+     * @return The new animal.
+     * @throws IOException If the type is unknown.
+     */
+    private Animal createAnimal(String type, String name, int speed, int energyPerMeter, int maxEnergy, int route) throws IOException {
+        switch (type) {
+            case "Alligator":
+                return new Alligator(name, speed, energyPerMeter, maxEnergy, route, panel);
+            case "Dolphin":
+                return new Dolphin(name, speed, energyPerMeter, maxEnergy, route, panel);
+            case "Whale":
+                return new Whale(name, speed, energyPerMeter, maxEnergy, route, panel);
+            case "Eagle":
+                return new Eagle(name, speed, energyPerMeter, maxEnergy, route, panel);
+            case "Pigeon":
+                return new Pigeon(name, speed, energyPerMeter, maxEnergy, route, panel);
+            case "Cat":
+                return new Cat(name, speed, energyPerMeter, maxEnergy, panel);
+            case "Dog":
+                return new Dog(name, speed, energyPerMeter, maxEnergy, panel);
+            case "Snake":
+                return new Snake(name, speed, energyPerMeter, maxEnergy, panel);
+            default:
+                throw new IOException("Unknown animal type " + type);
+        }
+    }
+
+    /**
+     * Returns the key of an animal among the animals whose tournaments are over.
+     *
+     * @param animal The animal.
+     * @return The type and the name of the animal.
+     */
+    private static String getKey(Animal animal) {
+        return animal.getType() + "/" + animal.getAnimalName();
+    }
+
+    /**
+     * Reads a string of the journal.
+     *
+     * @param channel The journal file.
+     * @param buffer  The read buffer.
+     * @return The string.
+     * @throws IOException If the string cannot be read.
+     */
+    private static String getString(FileChannel channel, ByteBuffer buffer) throws IOException {
+        need(channel, buffer, 2);
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        need(channel, buffer, bytes.length);
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Makes sure the buffer holds the next bytes of a record.
+     *
+     * @param channel The journal file.
+     * @param buffer  The read buffer.
+     * @param bytes   The number of bytes needed.
+     * @throws IOException If the journal ends before, or cannot be read.
+     */
+    private static void need(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (!fill(channel, buffer, bytes))
+            throw new EOFException();
+    }
+
+    /**
+     * Reads from the journal until the buffer holds at least the given number of bytes or the journal ends.
+     *
+     * @param channel The journal file.
+     * @param buffer  The read buffer, ready for reading.
+     * @param bytes   The number of bytes wanted.
+     * @return true if the buffer holds the bytes, false if the journal ended before.
+     * @throws IOException If the journal cannot be read.
+     */
+    private static boolean fill(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes)
+            return true;
+        buffer.compact();
+        try {
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0)
+                    return false;
+            }
+        } finally {
+            buffer.flip();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,163 @@
+package Graphics;
+
+import Animals.Orientation;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Singleton class that packs the sprites of the {@link SpriteCache}, pre-scaled to the size they are drawn at,
+ * into shared atlas pages. Every sprite is scaled once, when it is first requested, instead of on every frame.
+ * Each size has its own pages: a page is a grid of {@value #PAGE_COLUMNS} x {@value #PAGE_COLUMNS} square cells,
+ * and a new page is started when the last one is full.
+ */
+public class SpriteAtlas {
+
+    /**
+     * Number of cells in a row (and in a column) of a page.
+     */
+    private static final int PAGE_COLUMNS = 8;
+
+    /**
+     * Marks a sprite that could not be loaded, so it is not looked up again.
+     */
+    private static final SpriteRegion MISSING = new SpriteRegion(null, 0, 0, 0);
+
+    /**
+     * Static instance of SpriteAtlas for Singleton pattern.
+     */
+    private static SpriteAtlas instance = null;
+
+    /**
+     * Map from the sprite key to its region.
+     */
+    private final ConcurrentHashMap<String, SpriteRegion> regions;
+
+    /**
+     * Map from the size to the pages holding the sprites of that size. Guarded by the atlas.
+     */
+    private final Map<Integer, List<BufferedImage>> pages;
+
+    /**
+     * Map from the size to the number of cells used in its last page. Guarded by the atlas.
+     */
+    private final Map<Integer, Integer> usedCells;
+
+    /**
+     * Private constructor to prevent external instantiation.
+     */
+    private SpriteAtlas() {
+        regions = new ConcurrentHashMap<>();
+        pages = new HashMap<>();
+        usedCells = new HashMap<>();
+    }
+
+    /**
+     * Gets the single instance of the SpriteAtlas class.
+     *
+     * @return The single instance of the SpriteAtlas class.
+     */
+    public static synchronized SpriteAtlas getInstance() {
+        if (instance == null) {
+            instance = new SpriteAtlas();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the region of a sprite scaled to the given size.
+     * The sprite is scaled and packed into a page on the first request for that name, orientation and size.
+     *
+     * @param imageName   The base name of the image, for example "dog".
+     * @param orientation The orientation of the animal.
+     * @param size        The width and height the sprite is drawn at, in pixels.
+     * @return The region of the sprite, or null if the image could not be loaded or the size is not positive.
+     */
+    public SpriteRegion getRegion(String imageName, Orientation orientation, int size) {
+        if (size <= 0)
+            return null;
+        String key = imageName + "_" + SpriteCache.getSuffix(orientation) + "@" + size;
+        SpriteRegion region = regions.computeIfAbsent(key, k -> pack(imageName, orientation, size));
+        return region == MISSING ? null : region;
+    }
+
+    /**
+     * Returns the number of pages of all sizes.
+     *
+     * @return The number of atlas pages.
+     */
+    public synchronized int getPageCount() {
+        int count = 0;
+        for (List<BufferedImage> sizePages : pages.values()) {
+            count += sizePages.size();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the memory taken by the atlas pages.
+     *
+     * @return The size of the pixel data of all pages, in bytes.
+     */
+    public synchronized long getMemoryFootprint() {
+        long bytes = 0;
+        for (List<BufferedImage> sizePages : pages.values()) {
+            for (BufferedImage page : sizePages) {
+                bytes += (long) page.getWidth() * page.getHeight() * page.getColorModel().getPixelSize() / 8;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns a string representation of the atlas.
+     *
+     * @return A string with the number of sprites, pages and their memory footprint.
+     */
+    @Override
+    public String toString() {
+        return "Sprites: " + regions.size() + ", pages: " + getPageCount() + ", memory: " + getMemoryFootprint() + " bytes";
+    }
+
+    /**
+     * Scales a sprite to the given size and copies it into the next free cell of a page of that size.
+     *
+     * @param imageName   The base name of the image.
+     * @param orientation The orientation of the animal.
+     * @param size        The width and height of the cell, in pixels.
+     * @return The region of the packed sprite, or {@link #MISSING} if the image could not be loaded.
+     */
+    private synchronized SpriteRegion pack(String imageName, Orientation orientation, int size) {
+        BufferedImage sprite = SpriteCache.getInstance().getSprite(imageName, orientation);
+        if (sprite == null)
+            return MISSING;
+
+        List<BufferedImage> sizePages = pages.computeIfAbsent(size, k -> new ArrayList<>());
+        int cell = usedCells.getOrDefault(size, 0);
+        if (sizePages.isEmpty() || cell == PAGE_COLUMNS * PAGE_COLUMNS) {
+            sizePages.add(SpriteCache.createCompatibleImage(PAGE_COLUMNS * size, PAGE_COLUMNS * size));
+            cell = 0;
+        }
+        usedCells.put(size, cell + 1);
+
+        BufferedImage page = sizePages.get(sizePages.size() - 1);
+        int x = (cell % PAGE_COLUMNS) * size;
+        int y = (cell / PAGE_COLUMNS) * size;
+
+        Graphics2D g = page.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(sprite, x, y, size, size, null);
+        g.dispose();
+
+        return new SpriteRegion(page, x, y, size);
+    }
+}
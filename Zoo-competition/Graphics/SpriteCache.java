@@ -0,0 +1,191 @@
+package Graphics;
+
+import Animals.Orientation;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Singleton class that keeps one decoded copy of every animal sprite for the whole process.
+ * Sprites are keyed by image name and orientation, decoded from disk the first time they are requested,
+ * and converted to an image type compatible with the screen so that drawing them is a plain blit.
+ * The cache is thread-safe: animals may be created from any thread.
+ */
+public class SpriteCache {
+
+    /**
+     * Marks a sprite that could not be loaded, so the disk is not read again for it.
+     */
+    private static final BufferedImage MISSING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    /**
+     * Static instance of SpriteCache for Singleton pattern.
+     */
+    private static SpriteCache instance = null;
+
+    /**
+     * Map from the sprite key to its decoded image.
+     */
+    private final ConcurrentHashMap<String, BufferedImage> sprites;
+
+    /**
+     * Private constructor to prevent external instantiation.
+     */
+    private SpriteCache() {
+        sprites = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the single instance of the SpriteCache class.
+     *
+     * @return The single instance of the SpriteCache class.
+     */
+    public static synchronized SpriteCache getInstance() {
+        if (instance == null) {
+            instance = new SpriteCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the sprite of an animal facing the given orientation.
+     * The image file is read and decoded only on the first request for that name and orientation.
+     *
+     * @param imageName   The base name of the image, for example "dog".
+     * @param orientation The orientation of the animal.
+     * @return The shared sprite, or null if the image could not be loaded.
+     */
+    public BufferedImage getSprite(String imageName, Orientation orientation) {
+        BufferedImage sprite = sprites.computeIfAbsent(getKey(imageName, orientation), this::load);
+        return sprite == MISSING ? null : sprite;
+    }
+
+    /**
+     * Returns the number of sprites in the cache.
+     *
+     * @return The number of decoded sprites.
+     */
+    public int size() {
+        int count = 0;
+        for (BufferedImage sprite : sprites.values()) {
+            if (sprite != MISSING)
+                ++count;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the memory taken by the decoded sprites.
+     *
+     * @return The size of the pixel data of all sprites, in bytes.
+     */
+    public long getMemoryFootprint() {
+        long bytes = 0;
+        for (BufferedImage sprite : sprites.values()) {
+            if (sprite != MISSING)
+                bytes += (long) sprite.getWidth() * sprite.getHeight() * sprite.getColorModel().getPixelSize() / 8;
+        }
+        return bytes;
+    }
+
+    /**
+     * Removes all sprites from the cache.
+     */
+    public void clear() {
+        sprites.clear();
+    }
+
+    /**
+     * Returns a string representation of the cache.
+     *
+     * @return A string with the number of sprites and their memory footprint.
+     */
+    @Override
+    public String toString() {
+        return "Sprites: " + size() + ", memory: " + getMemoryFootprint() + " bytes";
+    }
+
+    /**
+     * Returns the file suffix of the sprite facing the given orientation.
+     *
+     * @param orientation The orientation of the animal.
+     * @return The suffix of the image file, without extension.
+     */
+    public static String getSuffix(Orientation orientation) {
+        switch (orientation) {
+            case SOUTH:
+                return "down_left";
+            case WEST:
+                return "left_up";
+            case NORTH:
+                return "up_right";
+            default:
+                return "right_down";
+        }
+    }
+
+    /**
+     * Returns the cache key of a sprite, which is also the name of its image file.
+     *
+     * @param imageName   The base name of the image.
+     * @param orientation The orientation of the animal.
+     * @return The cache key.
+     */
+    private static String getKey(String imageName, Orientation orientation) {
+        return imageName + "_" + getSuffix(orientation);
+    }
+
+    /**
+     * Reads and decodes a sprite from disk and converts it to a compatible image.
+     *
+     * @param key The cache key of the sprite.
+     * @return The decoded sprite, or {@link #MISSING} if the image could not be loaded.
+     */
+    private BufferedImage load(String key) {
+        try {
+            BufferedImage image = ImageIO.read(new File(IDrawable.PICTURE_PATH + key + ".png"));
+            if (image == null)
+                throw new IOException("Unsupported image format");
+            return toCompatibleImage(image);
+        } catch (IOException e) {
+            System.out.println("Cannot load images for " + key);
+            return MISSING;
+        }
+    }
+
+    /**
+     * Copies an image into an image type that can be drawn without conversion.
+     * Uses the format of the screen when there is one, and premultiplied ARGB otherwise.
+     *
+     * @param image The decoded image.
+     * @return A compatible copy of the image.
+     */
+    private static BufferedImage toCompatibleImage(BufferedImage image) {
+        BufferedImage compatible = createCompatibleImage(image.getWidth(), image.getHeight());
+        Graphics2D g = compatible.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+
+    /**
+     * Creates an empty translucent image that can be drawn without conversion.
+     * Uses the format of the screen when there is one, and premultiplied ARGB otherwise.
+     *
+     * @param width  The width of the image.
+     * @param height The height of the image.
+     * @return The new image.
+     */
+    static BufferedImage createCompatibleImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless())
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+}
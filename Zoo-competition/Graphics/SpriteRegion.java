@@ -0,0 +1,95 @@
+package Graphics;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+
+/**
+ * The SpriteRegion class is an immutable reference to one pre-scaled sprite inside a page of the {@link SpriteAtlas}.
+ * Drawing a region copies its square from the page without any scaling.
+ */
+public class SpriteRegion {
+
+    /**
+     * The atlas page that holds the sprite.
+     */
+    private final BufferedImage page;
+
+    /**
+     * The x coordinate of the sprite inside the page.
+     */
+    private final int x;
+
+    /**
+     * The y coordinate of the sprite inside the page.
+     */
+    private final int y;
+
+    /**
+     * The width and height of the sprite in pixels.
+     */
+    private final int size;
+
+    /**
+     * Constructs a SpriteRegion with the given values.
+     *
+     * @param page The atlas page that holds the sprite.
+     * @param x    The x coordinate of the sprite inside the page.
+     * @param y    The y coordinate of the sprite inside the page.
+     * @param size The width and height of the sprite in pixels.
+     */
+    public SpriteRegion(BufferedImage page, int x, int y, int size) {
+        this.page = page;
+        this.x = x;
+        this.y = y;
+        this.size = size;
+    }
+
+    /**
+     * Draws the sprite with its top left corner at the given position.
+     *
+     * @param g        The graphics context to draw on.
+     * @param dx       The x coordinate of the destination.
+     * @param dy       The y coordinate of the destination.
+     * @param observer The object to be notified as more of the image is converted.
+     */
+    public void draw(Graphics g, int dx, int dy, ImageObserver observer) {
+        g.drawImage(page, dx, dy, dx + size, dy + size, x, y, x + size, y + size, observer);
+    }
+
+    /**
+     * Returns the atlas page that holds the sprite.
+     *
+     * @return The page image.
+     */
+    public BufferedImage getPage() {
+        return page;
+    }
+
+    /**
+     * Returns the x coordinate of the sprite inside the page.
+     *
+     * @return The x coordinate in pixels.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Returns the y coordinate of the sprite inside the page.
+     *
+     * @return The y coordinate in pixels.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Returns the width and height of the sprite.
+     *
+     * @return The size in pixels.
+     */
+    public int getSize() {
+        return size;
+    }
+}
@@ -1,16 +1,32 @@
 package Graphics;
 
 import Animals.Animal;
+import Animals.AnimalRegistry;
+import Animals.AnimalSnapshot;
+import Animals.Category;
+import Animals.EnergyLedger;
+import Animals.SimulationEngine;
+import Animals.SnapshotPublisher;
+import Animals.TrackGeometry;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.text.NumberFormatter;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.text.NumberFormat;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.Date;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import Competitions.ScoreEntry;
 import Competitions.Scores;
 import Competitions.SleepTime;
 
@@ -32,9 +48,57 @@ public class ZooPanel extends JPanel{
     private Image backgroundImage;
 
     /**
-     * Array of Animal objects representing the players in the zoo competition.
+     * The background image scaled to the size of the panel, or null if it must be scaled again.
+     * Read by the event dispatch thread and by the render thread of the {@link ActiveRenderer}.
      */
-    private Animal[] players;
+    private volatile BufferedImage scaledBackground;
+
+    /**
+     * The tracks of the zoo at its current size, or null if they were never needed.
+     * Read by the simulation and tournament threads; replaced only on the simulation thread, between two ticks.
+     */
+    private volatile TrackGeometry trackGeometry;
+
+    /**
+     * The last size the panel was resized to whose tracks are not built yet, or null.
+     * Set by the resize listener and taken by the simulation thread, so many resizes in a row build the tracks once.
+     */
+    private final AtomicReference<Dimension> pendingSize = new AtomicReference<>();
+
+    /**
+     * Guards the creation and the replacement of {@link #trackGeometry}.
+     */
+    private final Object trackLock = new Object();
+
+    /**
+     * Delay between two frames of the repaint timer, in milliseconds.
+     */
+    private static final int FRAME_MILLIS = 1000 / 60;
+
+    /**
+     * The snapshot each visible animal was last painted from. Used only on the event dispatch thread.
+     */
+    private final Map<Animal, AnimalSnapshot> painted;
+
+    /**
+     * Publishes the snapshots of the players that the panel paints and shows in the info table.
+     */
+    private final SnapshotPublisher snapshots;
+
+    /**
+     * The timer repainting the panel, or null if the panel is painted by an {@link ActiveRenderer}.
+     */
+    private final Timer timer;
+
+    /**
+     * The canvas drawing the zoo on its own render thread, or null if the panel is painted by Swing.
+     */
+    private final ActiveRenderer renderer;
+
+    /**
+     * The players in the zoo competition, indexed by name and by availability.
+     */
+    private final AnimalRegistry registry;
 
     /**
      * Number of columns in the Animal information table.
@@ -44,7 +108,7 @@ public class ZooPanel extends JPanel{
     /**
      * Number of columns in the tournament information table.
      */
-    private static final int tournamentTableColumns = 2;
+    private static final int tournamentTableColumns = 4;
 
 //    private static int zooWidth;
 //
@@ -52,15 +116,42 @@ public class ZooPanel extends JPanel{
 
     /**
      * Constructs a ZooPanel instance, initializing the panel with a timer for regular repainting,
-     * setting up the `panels` and `players` fields, and loading the background image.
+     * setting up the `panels` field and the player registry, and loading the background image.
+     * The timer only repaints the areas of the animals that moved since the last frame.
+     * The panel never reads the players while they move: it paints the snapshots the simulation publishes between ticks,
+     * at most once per frame.
+     * When active rendering is enabled with {@value ActiveRenderer#ENABLED_PROPERTY}, an {@link ActiveRenderer} covering
+     * the panel draws the zoo on its own thread instead, and the timer is not started.
      */
     public ZooPanel(){
 //        zooWidth = getWidth();
 //        zooHeight = getHeight();
-        Timer timer = new Timer(1000 / 60, e -> repaint());
-        timer.start();
+        painted = new IdentityHashMap<>();
+        renderer = ActiveRenderer.isActiveRenderingEnabled() ? new ActiveRenderer(this) : null;
+        snapshots = new SnapshotPublisher(renderer != null ? renderer.getFrameNanos() : FRAME_MILLIS * 1_000_000L);
+        if (renderer != null) {
+            add(renderer);
+            timer = null;
+        } else {
+            // Repainting only reads the published snapshots; the animals move in the SimulationEngine.
+            // While the engine is idle, moves made outside the tick loop are published here.
+            timer = new Timer(FRAME_MILLIS, e -> {
+                publishIfQuiet(FRAME_MILLIS * 1_000_000L);
+                repaintChanged();
+            });
+            timer.start();
+        }
         panels = null;
-        players = null;
+        registry = new AnimalRegistry();
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                // Move the players to the new tracks after the current tick, even those that are not moving.
+                // The event dispatch thread never waits for the simulation: it only leaves the new size behind.
+                if (trackGeometry != null && pendingSize.getAndSet(getSize()) == null)
+                    SimulationEngine.getInstance().runBetweenTicks(ZooPanel.this::applyPendingSize);
+            }
+        });
         loadImage("Images/competitionBackground.png");
 
 
@@ -68,25 +159,178 @@ public class ZooPanel extends JPanel{
 
     /**
      * Paints the component with the background image and animals.
+     * Only the area inside the clip is painted: the background is copied from a pre-scaled image,
+     * and animals outside the clip are skipped. The animals are drawn from the last published snapshot.
      *
      * @param g The {@link Graphics} context for painting.
      */
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
+        if (renderer != null)
+            return;
 
-        if (backgroundImage != null) {
-            g.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
+        Rectangle clip = g.getClipBounds();
+        if (clip == null)
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        paintScene(g, clip);
+    }
+
+    /**
+     * Paints the background and the animals of the last published snapshot inside an area.
+     * Called on the event dispatch thread by {@link #paintComponent(Graphics)}, or on the render thread of the {@link ActiveRenderer}.
+     *
+     * @param g    The graphics context to paint into.
+     * @param clip The area to paint.
+     */
+    void paintScene(Graphics g, Rectangle clip) {
+        BufferedImage background = getScaledBackground();
+        if (background != null) {
+            g.drawImage(background, clip.x, clip.y, clip.x + clip.width, clip.y + clip.height,
+                    clip.x, clip.y, clip.x + clip.width, clip.y + clip.height, this);
         }
 
-        if (players != null) {
-            for (Animal animal : players) {
-                if (animal != null)
-                    if (!(animal.isAvailable())) {
-                        animal.drawObject(g);
-                    }
+        for (AnimalSnapshot snapshot : snapshots.getSnapshot()) {
+            if (!snapshot.isAvailable()) {
+                if (g.hitClip(snapshot.getX(), snapshot.getY(), snapshot.getSize(), snapshot.getSize()))
+                    snapshot.getAnimal().drawObject(g, snapshot.getX(), snapshot.getY(), snapshot.getOrientation());
+            }
+        }
+    }
+
+    /**
+     * Asks for a snapshot of the players if the simulation published none for a while, which happens when it is idle.
+     * Does not wait for the snapshot, which the simulation thread takes after the current tick.
+     *
+     * @param quietNanos How long without a publication before publishing, in nanoseconds.
+     */
+    void publishIfQuiet(long quietNanos) {
+        snapshots.publishIfQuiet(quietNanos);
+    }
+
+    /**
+     * Returns the tracks of the zoo.
+     * The tracks are built the first time they are needed; afterwards this only reads them, so it is safe on the
+     * simulation thread in the middle of a tick. They are built again on the simulation thread after the panel is resized.
+     *
+     * @return The track geometry of the panel.
+     */
+    public TrackGeometry getTrackGeometry() {
+        TrackGeometry geometry = trackGeometry;
+        if (geometry != null)
+            return geometry;
+        synchronized (trackLock) {
+            if (trackGeometry == null)
+                trackGeometry = new TrackGeometry(getWidth(), getHeight());
+            return trackGeometry;
+        }
+    }
+
+    /**
+     * Builds the tracks for the last size the panel was resized to, if it was not built yet.
+     * Runs on the simulation thread between two ticks of the {@link SimulationEngine}.
+     */
+    private void applyPendingSize() {
+        Dimension size = pendingSize.getAndSet(null);
+        if (size != null)
+            resizeTracks(size.width, size.height);
+    }
+
+    /**
+     * Builds the tracks for a new size of the panel, and moves the players from the old tracks to the same
+     * track coordinates on the new ones, so races go on where they were.
+     * Runs on the simulation thread between two ticks of the {@link SimulationEngine};
+     * the players are not moved from a panel that was not laid out yet.
+     *
+     * @param width  The new width of the panel.
+     * @param height The new height of the panel.
+     */
+    private void resizeTracks(int width, int height) {
+        synchronized (trackLock) {
+            TrackGeometry previous = trackGeometry;
+            if (previous != null && previous.hasSize(width, height))
+                return;
+            TrackGeometry geometry = new TrackGeometry(width, height);
+            if (previous != null && !previous.isEmpty() && !geometry.isEmpty())
+                geometry.reproject(previous, registry.toArray());
+            trackGeometry = geometry;
+        }
+    }
+
+    /**
+     * Stops the repaint timer and the publication of snapshots after the ticks of the {@link SimulationEngine}.
+     * The panel shows the last published snapshot from then on.
+     */
+    public void close() {
+        if (timer != null)
+            timer.stop();
+        snapshots.close();
+    }
+
+    /**
+     * Sizes the {@link ActiveRenderer}, if there is one, to cover the whole panel.
+     */
+    @Override
+    public void doLayout() {
+        super.doLayout();
+        if (renderer != null)
+            renderer.setBounds(0, 0, getWidth(), getHeight());
+    }
+
+    /**
+     * Repaints the areas of the animals that moved, turned, appeared or disappeared since the last call.
+     * Both the old and the new area of an animal are repainted. Nothing is repainted if no animal changed.
+     * Must be called on the event dispatch thread.
+     */
+    private void repaintChanged() {
+        Map<Animal, AnimalSnapshot> visible = new IdentityHashMap<>();
+        for (AnimalSnapshot snapshot : snapshots.getSnapshot()) {
+            if (!snapshot.isAvailable()) {
+                visible.put(snapshot.getAnimal(), snapshot);
+
+                AnimalSnapshot previous = painted.put(snapshot.getAnimal(), snapshot);
+                if (snapshot.movedSince(previous)) {
+                    if (previous != null)
+                        repaint(previous.getX(), previous.getY(), previous.getSize(), previous.getSize());
+                    repaint(snapshot.getX(), snapshot.getY(), snapshot.getSize(), snapshot.getSize());
+                }
             }
         }
+
+        Iterator<Map.Entry<Animal, AnimalSnapshot>> entries = painted.entrySet().iterator();
+        while (entries.hasNext()) {
+            AnimalSnapshot previous = entries.next().getValue();
+            if (!visible.containsKey(previous.getAnimal())) {
+                repaint(previous.getX(), previous.getY(), previous.getSize(), previous.getSize());
+                entries.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the background image scaled to the current size of the panel.
+     * The image is scaled again only when the size of the panel changes.
+     * The scaled image is never modified once published, so it can be drawn from any thread.
+     *
+     * @return The scaled background, or null if there is no background or the panel has no size yet.
+     */
+    private BufferedImage getScaledBackground() {
+        int width = getWidth();
+        int height = getHeight();
+        if (backgroundImage == null || width <= 0 || height <= 0)
+            return null;
+
+        BufferedImage scaled = scaledBackground;
+        if (scaled == null || scaled.getWidth() != width || scaled.getHeight() != height) {
+            GraphicsConfiguration configuration = getGraphicsConfiguration();
+            scaled = configuration != null ? configuration.createCompatibleImage(width, height)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = scaled.createGraphics();
+            g.drawImage(backgroundImage, 0, 0, width, height, this);
+            g.dispose();
+            scaledBackground = scaled;
+        }
+        return scaled;
     }
 
     /**
@@ -97,6 +341,7 @@ public class ZooPanel extends JPanel{
     private void loadImage(String path) {
         try {
             backgroundImage = new ImageIcon(path).getImage();
+            scaledBackground = null;
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -119,18 +364,8 @@ public class ZooPanel extends JPanel{
         if (animal == null) {
             return;
         }
-        if (players == null) {
-            players = new Animal[1];
-            players[0] = animal;
-        } else {
-            int len = players.length;
-            Animal[] tmp = new Animal[len + 1];
-            for (int i = 0; i < len; ++i) {
-                tmp[i] = players[i];
-            }
-            tmp[len] = animal;
-            players = tmp;
-        }
+        if (registry.register(animal))
+            snapshots.addAnimal(animal);
 
     }
 
@@ -170,7 +405,7 @@ public class ZooPanel extends JPanel{
         frame.setSize(900, 200);
 
         // Show a warning if no participants are available
-        if (players == null) {
+        if (registry.isEmpty()) {
             JOptionPane.showMessageDialog(frame, "No participate yet", "Invalid operation", JOptionPane.WARNING_MESSAGE);
             return;
         }
@@ -217,28 +452,32 @@ public class ZooPanel extends JPanel{
      * This method constructs a 2D object array containing details of each participating animal.
      * Each row in the array represents an animal, and the columns represent various attributes such as the animal's name, type, category, speed, current energy,
      * total energy from eating, total distance, and energy consumption.
+     * The rows are read from the last published snapshot of the players, so the table never reads an animal while it moves.
+     * The energy columns are the totals of each animal's {@link EnergyLedger} at that tick.
      * If the participants array is null, the method returns null.
      * </p>
      *
      * @return A 2D object array containing animal details, or null if the participants array is null.
      */
     public Object[][] createAnimalsTable() {
-        if (players == null)
+        if (registry.isEmpty())
             return null;
 
-        int playersLen = players.length;
+        List<AnimalSnapshot> rows = snapshots.getSnapshot();
+        int playersLen = rows.size();
 
         Object[][] table = new Object[playersLen][animalsTableColumns];
 
         for (int i = 0; i < playersLen; ++i) {
-            table[i][0] = players[i].getAnimalName();
-            table[i][1] = players[i].getType();
-            table[i][2] = players[i].getCategory();
-            table[i][3] = players[i].getSpeed();
-            table[i][4] = players[i].getCurrentEnergy();
-            table[i][5] = players[i].getTotalEnergyFromEating();
-            table[i][6] = players[i].getTotalDistance();
-            table[i][7] = players[i].getTotalEnergyFromEating() - players[i].getCurrentEnergy();
+            AnimalSnapshot row = rows.get(i);
+            table[i][0] = row.getAnimalName();
+            table[i][1] = row.getType();
+            table[i][2] = row.getCategory();
+            table[i][3] = row.getSpeed();
+            table[i][4] = row.getEnergy();
+            table[i][5] = row.getEaten();
+            table[i][6] = row.getTotalDistance();
+            table[i][7] = row.getConsumed();
         }
         return table;
     }
@@ -273,7 +512,7 @@ public class ZooPanel extends JPanel{
     private void increaseEnergy(JFrame frame, String energy, String animalName) throws IllegalStateException {
 
         try {
-            if (players == null) {
+            if (registry.isEmpty()) {
                 throw new IllegalStateException("Participants array is null.");
             }
             Animal animalToFeed = findAnimal(animalName);
@@ -289,7 +528,7 @@ public class ZooPanel extends JPanel{
 
 
                     if(animalToFeed.isNeedToMove()) {
-                        if(animalToFeed.getAnimalAsNumber(animalToFeed.getCategory()) != 3)
+                        if(!animalToFeed.isOnLoopTrack())
                             animalToFeed.startMoving();
                         else
                             animalToFeed.startMoveTerrestrial();
@@ -319,10 +558,7 @@ public class ZooPanel extends JPanel{
      * @return The animal with the specified name, or {@code null} if not found.
      */
     public Animal findAnimal(String animalName){
-        for (int i=0; i<players.length; ++i)
-            if(players[i].getAnimalName().equals(animalName))
-                return players[i];
-        return null;
+        return registry.findByName(animalName);
     }
 
     /**
@@ -331,23 +567,10 @@ public class ZooPanel extends JPanel{
      * @return A JComboBox with animal names or a message if no animals are available.
      */
     public JComboBox<String> selectAnimalToAdd() {
-        if (players == null)
+        if (registry.isEmpty())
             return new JComboBox<>(new String[]{"No Animals Available"});
 
-        String[] animalsNames = new String[players.length + 1];
-        animalsNames[0] = "Select Animal";
-
-        int i = 1;
-        for (Animal animal : players) {
-            if (animal != null) {
-                animalsNames[i] = animal.getAnimalName();
-                ++i;
-            }
-        }
-        JComboBox<String> animalsNamesComboBox = new JComboBox<>(animalsNames);
-        animalsNamesComboBox.setPreferredSize(new Dimension(150, 25));
-
-        return animalsNamesComboBox;
+        return createAnimalsComboBox(Arrays.asList(registry.toArray()));
     }
 
     /**
@@ -358,59 +581,40 @@ public class ZooPanel extends JPanel{
      */
     public JComboBox<String> selectAnimalToAddIfAvailable(int competitionType) {
 
-        if (players == null)
+        if (registry.isEmpty())
             return new JComboBox<>(new String[]{"No Animals Available"});
 
-        String[] animalsNames = new String[countAvailableAnimalsFromType(competitionType) + 1];
-        animalsNames[0] = "Select Animal";
-
+        List<Animal> available;
         switch (competitionType) {
             case 1: //selects from Water animals
-            {
-                int i = 1;
-                for (Animal animal : players) {
-                    if (animal != null)
-                        if (animal.isAvailable())
-                            if (animal.getCategory().equals("Water") || animal.getCategory().equals("Terrestrial+Water")) {
-                                animalsNames[i] = animal.getAnimalName();
-                                ++i;
-                            }
-                }
-
+                available = registry.getAvailable(Category.WATER, Category.TERRESTRIAL_WATER);
                 break;
-            }
             case 2: //selects from Air animals
-            {
-                int i = 1;
-                for (Animal animal : players) {
-                    if (animal != null)
-                        if (animal.isAvailable())
-                            if (animal.getCategory().equals("Air")) {
-                                animalsNames[i] = animal.getAnimalName();
-                                ++i;
-                            }
-                }
+                available = registry.getAvailable(Category.AIR);
                 break;
-            }
             case 3: //selects from Terrestrial animals
-            {
-                int i = 1;
-                for (Animal animal : players) {
-                    if (animal != null)
-                        if (animal.isAvailable())
-                            if (animal.getCategory().equals("Terrestrial")) {
-                                animalsNames[i] = animal.getAnimalName();
-                                ++i;
-                            }
-
-                }
-
+                available = registry.getAvailable(Category.TERRESTRIAL);
                 break;
-            }
             default:
                 System.out.println("Error accorded");
+                available = Collections.emptyList();
                 break;
         }
+        return createAnimalsComboBox(available);
+    }
+
+    /**
+     * Creates a JComboBox with the names of some animals, after a "Select Animal" entry.
+     *
+     * @param animals The animals to list.
+     * @return A JComboBox with the names of the animals.
+     */
+    private JComboBox<String> createAnimalsComboBox(List<Animal> animals) {
+        String[] animalsNames = new String[animals.size() + 1];
+        animalsNames[0] = "Select Animal";
+        for (int i = 0; i < animals.size(); ++i) {
+            animalsNames[i + 1] = animals.get(i).getAnimalName();
+        }
 
         JComboBox<String> animalsNamesComboBox = new JComboBox<>(animalsNames);
         animalsNamesComboBox.setPreferredSize(new Dimension(150, 25));
@@ -425,49 +629,17 @@ public class ZooPanel extends JPanel{
      * @return The number of available animals of the specified type.
      */
     public int countAvailableAnimalsFromType(int competitionType) {
-
-        int count = 0;
         switch (competitionType) {
             case 1: //selects from Water animals
-            {
-                for (Animal animal : players) {
-                    if (animal != null) {
-                        if (animal.isAvailable())
-                            if (animal.getCategory().equals("Water") || animal.getCategory().equals("Terrestrial+Water"))
-                                ++count;
-                    }
-                }
-
-                break;
-            }
+                return registry.countAvailable(Category.WATER, Category.TERRESTRIAL_WATER);
             case 2: //selects from Air animals
-            {
-                for (Animal animal : players) {
-                    if (animal != null)
-                        if (animal.isAvailable())
-                            if (animal.getCategory().equals("Air")) {
-                                ++count;
-                            }
-                }
-                break;
-            }
+                return registry.countAvailable(Category.AIR);
             case 3: //selects from Terrestrial animals
-            {
-                for (Animal animal : players) {
-                    if (animal != null) {
-                        if (animal.isAvailable())
-                            if (animal.getCategory().equals("Terrestrial"))
-                                ++count;
-
-                    }
-                }
-                break;
-            }
+                return registry.countAvailable(Category.TERRESTRIAL);
             default:
                 System.out.println("Error accorded");
-                break;
+                return 0;
         }
-        return count;
     }
 
     /**
@@ -476,18 +648,7 @@ public class ZooPanel extends JPanel{
      * @return The number of animals that are currently available.
      */
     public int availableAnimals() {
-        if (players == null)
-            return 0;
-
-        int availableCount = 0;
-
-        for (Animal animal : players) {
-            if (animal != null) {
-                if (animal.isAvailable())
-                    ++availableCount;
-            }
-        }
-        return availableCount;
+        return registry.countAvailable();
     }
 
     /**
@@ -500,7 +661,7 @@ public class ZooPanel extends JPanel{
      */
     public void eatAnimal() {
 
-        if (players == null) {
+        if (registry.isEmpty()) {
             JOptionPane.showMessageDialog(this, "No animals available to feed", "Invalid operation", JOptionPane.WARNING_MESSAGE);
             return;
         }
@@ -709,7 +870,7 @@ public class ZooPanel extends JPanel{
     public void scoresInfo(int tournamentNumber) {
 
         JFrame frame = new JFrame("tournament " + tournamentNumber + " Scores");
-        frame.setSize(450, 150);
+        frame.setSize(600, 150);
 
         // Show a warning if no participants are available
         if (panels == null) {
@@ -718,7 +879,7 @@ public class ZooPanel extends JPanel{
         }
 
 
-        String[] columnNames = {"Group Name", "Date"};
+        String[] columnNames = {"Place", "Group Name", "Date", "Time (ms)"};
 
 
         Object[][] competitionTable = createTournamentTable(tournamentNumber);
@@ -754,6 +915,7 @@ public class ZooPanel extends JPanel{
 
     /**
      * Creates a 2D array of tournament scores for a given tournament.
+     * The rows are the standings of the tournament, first place first.
      *
      * @param tournamentNumber The number of the tournament.
      * @return A 2D array representing the scores table.
@@ -766,18 +928,19 @@ public class ZooPanel extends JPanel{
 
         // Get the scores for the selected group
         Scores scores = selectedPanel.getTournament().getTournamentThread().getScores();
-        Map<String, Date> scoresMap = scores.getAll();
-        int numOfScores = scoresMap.size();
+        List<ScoreEntry> ranking = scores.getRanking();
 
         // Create a 2D array with the correct size
-        Object[][] table = new Object[numOfScores][tournamentTableColumns];
+        Object[][] table = new Object[ranking.size()][tournamentTableColumns];
 
         int rowIndex = 0;
 
-        for (Map.Entry<String, Date> entry : scoresMap.entrySet()) {
+        for (ScoreEntry entry : ranking) {
 
-            table[rowIndex][0] = entry.getKey(); // Animal Name
-            table[rowIndex][1] = entry.getValue(); // Date
+            table[rowIndex][0] = entry.getPlace(); // Place
+            table[rowIndex][1] = entry.getName(); // Animal Name
+            table[rowIndex][2] = entry.getDate(); // Date
+            table[rowIndex][3] = entry.getElapsedNanos() / 1_000_000.0; // Time since the tournament was set up
 
             rowIndex++;
         }
@@ -799,7 +962,9 @@ public class ZooPanel extends JPanel{
      * @param players The array of animals.
      */
     public void setPlayers(Animal[] players) {
-        this.players = players;
+        registry.setAll(players);
+        snapshots.setAnimals(players);
+        repaint();
     }
 
     /**
@@ -890,131 +1055,57 @@ public class ZooPanel extends JPanel{
     }
 
     /**
-     * Gets the array of players.
+     * Gets the array of players, in the order they were added.
+     * The array is shared until the players change, and must not be modified.
      *
-     * @return The array of {@link Animal} players.
+     * @return The array of {@link Animal} players, or null if there is none.
      */
     public Animal[] getPlayers() {
-        return players;
+        return registry.toArray();
     }
 
     public int countAvailableAnimalsFromTypeAndRout(int competitionType, int competitionRout) {
-
-        int count = 0;
-
         switch (competitionType) {
             case 1: //selects from Water animals
-            {
-                for (Animal animal : players) {
-                    if (animal != null) {
-                        if (animal.isAvailable())
-                            if (animal.getCategory().equals("Water") || animal.getCategory().equals("Terrestrial+Water"))
-                                if (animal.getCompetitionRoute() == competitionRout)
-                                    ++count;
-                    }
-                }
-
-                break;
-            }
+                return registry.countAvailableOnRoute(competitionRout, Category.WATER, Category.TERRESTRIAL_WATER);
             case 2: //selects from Air animals
-            {
-                for (Animal animal : players) {
-                    if (animal != null)
-                        if (animal.isAvailable())
-                            if (animal.getCategory().equals("Air")) {
-                                if (animal.getCompetitionRoute() == competitionRout)
-                                    ++count;
-                            }
-                }
-                break;
-            }
+                return registry.countAvailableOnRoute(competitionRout, Category.AIR);
             case 3: //selects from Terrestrial animals
-            {
-                for (Animal animal : players) {
-                    if (animal != null) {
-                        if (animal.isAvailable())
-                            if (animal.getCategory().equals("Terrestrial") || animal.getCategory().equals("Terrestrial+Water"))
-                                ++count;
-
-                    }
-                }
-                break;
-            }
+                return registry.countAvailable(Category.TERRESTRIAL, Category.TERRESTRIAL_WATER);
             default:
                 System.out.println("Error accorded");
-                break;
+                return 0;
         }
-        return count;
     }
 
     public JComboBox<String> selectAnimalToAddIfAvailable(int competitionType, int competitionRout) {
 
-        if (players == null)
+        if (registry.isEmpty())
             return new JComboBox<>(new String[]{"No Animals Available"});
 
-        String[] animalsNames = new String[countAvailableAnimalsFromType(competitionType) + 1];
-        animalsNames[0] = "Select Animal";
-
+        List<Animal> available;
         switch (competitionType) {
             case 1: //selects from Water animals
-            {
-                int i = 1;
-                for (Animal animal : players) {
-                    if (animal != null)
-                        if (animal.isAvailable())
-                            if (animal.getCategory().equals("Water") || animal.getCategory().equals("Terrestrial+Water")) {
-                                if (animal.getCompetitionRoute() == competitionRout) {
-                                    animalsNames[i] = animal.getAnimalName();
-                                    ++i;
-                                }
-                            }
-                }
-
+                available = registry.getAvailableOnRoute(competitionRout, Category.WATER, Category.TERRESTRIAL_WATER);
                 break;
-            }
             case 2: //selects from Air animals
-            {
-                int i = 1;
-                for (Animal animal : players) {
-                    if (animal != null)
-                        if (animal.isAvailable())
-                            if (animal.getCategory().equals("Air")) {
-                                if (animal.getCompetitionRoute() == competitionRout) {
-                                    animalsNames[i] = animal.getAnimalName();
-                                    ++i;
-                                }
-                            }
-                }
+                available = registry.getAvailableOnRoute(competitionRout, Category.AIR);
                 break;
-            }
             case 3: //selects from Terrestrial animals
-            {
-                int i = 1;
-                for (Animal animal : players) {
-                    if (animal != null)
-                        if (animal.isAvailable())
-                            if (animal.getCategory().equals("Terrestrial") || animal.getCategory().equals("Terrestrial+Water")) {
-                                animalsNames[i] = animal.getAnimalName();
-                                ++i;
-                            }
-
-                }
-
+                available = registry.getAvailable(Category.TERRESTRIAL, Category.TERRESTRIAL_WATER);
                 break;
-            }
             default:
                 System.out.println("Error accorded");
+                available = Collections.emptyList();
                 break;
         }
-
-        JComboBox<String> animalsNamesComboBox = new JComboBox<>(animalsNames);
-        animalsNamesComboBox.setPreferredSize(new Dimension(150, 25));
-
-        return animalsNamesComboBox;
+        return createAnimalsComboBox(available);
     }
 
     public void setBackgroundImage(Image backgroundImage) {
         this.backgroundImage = backgroundImage;
+        this.scaledBackground = null;
+        repaint();
     }
 
     public void setSleepOld() {
@@ -2,13 +2,20 @@ package Mobility;
 
 /**
  * Represents object that can move.
+ * The location is kept as two primitive coordinates that are updated in place, so moving does not allocate.
+ * The {@link Point} methods remain for callers that need an immutable copy.
  */
 public abstract class Mobile implements ILocatable {
 
     /**
-     * The current location of the mobile object.
+     * The X coordinate of the current location of the mobile object.
      */
-    private Point location;
+    private int x;
+
+    /**
+     * The Y coordinate of the current location of the mobile object.
+     */
+    private int y;
 
     /**
      * The total distance traveled by the mobile object.
@@ -22,7 +29,8 @@ public abstract class Mobile implements ILocatable {
      * @param totalDistance distance the object has traveled so far. if distance is less than 0, sets distance to 0.
      */
     public Mobile(Point location, double totalDistance) {
-        this.location = new Point(location);
+        this.x = location.getX();
+        this.y = location.getY();
         if(totalDistance < 0)
             totalDistance = 0;
         this.totalDistance = totalDistance;
@@ -32,7 +40,8 @@ public abstract class Mobile implements ILocatable {
      * Construct a new Mobile object with default values.
      */
     public Mobile() {
-        this.location = new Point();
+        this.x = 0;
+        this.y = 0;
         this.totalDistance = 0;
     }
 
@@ -60,7 +69,20 @@ public abstract class Mobile implements ILocatable {
      * distance will be non-negative.
      */
     public double calcDistancePoint(Point point) {
-        return (Math.sqrt(Math.pow(location.getX()-point.getX(),2) + Math.pow(location.getY()-point.getY(),2)));
+        return calcDistance(point.getX(), point.getY());
+    }
+
+    /**
+     * Calculate the distance between the given coordinates and the location, without creating a point.
+     *
+     * @param x the X coordinate to calculate the distance to.
+     * @param y the Y coordinate to calculate the distance to.
+     * @return the distance between the object's location and (x, y).
+     */
+    public double calcDistance(int x, int y) {
+        double dx = this.x - x;
+        double dy = this.y - y;
+        return Math.sqrt(dx * dx + dy * dy);
     }
 
     /**
@@ -72,30 +94,67 @@ public abstract class Mobile implements ILocatable {
      * call calcDistancePoint function.
      */
     public double move(Point point) {
-        double distance = calcDistancePoint(point);
+        return moveTo(point.getX(), point.getY());
+    }
+
+    /**
+     * Update current location in place to the given coordinates and update total distance accordingly.
+     * Like {@link Point}, negative coordinates move the object to (0, 0).
+     *
+     * @param x the X coordinate to move to.
+     * @param y the Y coordinate to move to.
+     * @return the distance moved.
+     */
+    public double moveTo(int x, int y) {
+        if (x < 0 || y < 0) {
+            x = 0;
+            y = 0;
+        }
+        double distance = calcDistance(x, y);
         addTotalDistance(distance);
-        setLocation(point);
+        this.x = x;
+        this.y = y;
         return distance;
     }
 
+    /**
+     * Update current location in place by the given offsets and update total distance accordingly.
+     *
+     * @param dx the offset on the X axis.
+     * @param dy the offset on the Y axis.
+     * @return the distance moved.
+     */
+    public double moveBy(int dx, int dy) {
+        return moveTo(x + dx, y + dy);
+    }
+
     /**
      * @return current location.
      */
-    public Point getLocation(){return new Point(location);}
+    public Point getLocation(){return new Point(x, y);}
 
     /**
-     * Returns the X coordinate of the location.
+     * Checks whether the object is at the given coordinates, without copying its location.
+     *
+     * @param x The X coordinate to compare with.
+     * @param y The Y coordinate to compare with.
+     * @return true if the object is at (x, y), otherwise false.
+     */
+    public boolean isAt(int x, int y){return this.x == x && this.y == y;}
+
+    /**
+     * Returns the X coordinate of the location, without copying the location.
      *
      * @return The X coordinate of the location.
      */
-    protected int getLocationX(){return location.getX();}
+    public int getLocationX(){return x;}
 
     /**
-     * Returns the Y coordinate of the location.
+     * Returns the Y coordinate of the location, without copying the location.
      *
      * @return The Y coordinate of the location.
      */
-    protected int getLocationY(){return location.getY();}
+    public int getLocationY(){return y;}
 
     /**
      * Sets the location of the object to the given location.
@@ -106,7 +165,8 @@ public abstract class Mobile implements ILocatable {
      * call setLocation from Point class function.
      */
     public Boolean setLocation(Point location){
-        this.location = new Point(location);
+        this.x = location.getX();
+        this.y = location.getY();
         return true;
     }
 
@@ -121,7 +181,7 @@ public abstract class Mobile implements ILocatable {
      * @return a string which describes the Mobile object, including its location and total distance traveled.
      */
     public String toString() {
-        return "location: " + location.toString() + "\ntotal distance: " + totalDistance;
+        return "location: " + getLocation().toString() + "\ntotal distance: " + totalDistance;
     }
 
     /**
@@ -131,16 +191,8 @@ public abstract class Mobile implements ILocatable {
      * @return true if mobile is equal to origin and false otherwise.
      */
     public boolean equals(Object obj){
-        if(obj instanceof Mobile) {
-            if (location != null && ((Mobile) obj).location != null)
-                return location.equals(((Mobile) obj).getLocation()) && totalDistance == ((Mobile) obj).totalDistance;
-
-            else if ((location != null && ((Mobile) obj).location == null) || (location == null && ((Mobile) obj).location != null))
-                return false;
-            else if (totalDistance != ((Mobile) obj).totalDistance)
-                return false;
-            return true;
-        }
+        if(obj instanceof Mobile)
+            return isAt(((Mobile) obj).x, ((Mobile) obj).y) && totalDistance == ((Mobile) obj).totalDistance;
         return false;
     }
 }